@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Boots the application once per profile and runs a k6 load test against each,
+# exporting one summary (throughput, p50/p95/p99 latency) per profile to build/perf
+# and printing them side by side at the end.
+#
+#   perf/compare-profiles.sh default virtual-threads
+#   SCRIPT=perf/db-load-test.js APP_ARGS=--spring.cache.type=none perf/compare-profiles.sh default prod
+#
+# Requires k6 on the PATH. VUS and DURATION are passed through to the k6 script, APP_ARGS to the
+# application.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+if [ $# -eq 0 ]; then
+  set -- default virtual-threads
+fi
+BASE_URL=${BASE_URL:-http://localhost:8080/library-api}
+SCRIPT=${SCRIPT:-perf/load-test.js}
+mkdir -p build/perf
+
+./gradlew -q bootJar
+JAR=$(ls build/libs/*.jar | grep -v -- '-plain' | head -n 1)
+
+for profile in "$@"; do
+  echo "=== profile: ${profile}"
+  # k6 is a single client, its load would be measured against the per-client rate limit
+  java ${JAVA_OPTS:-} -jar "${JAR}" --spring.profiles.active="${profile}" --library.rate-limit.enabled=false ${APP_ARGS:-} > "build/perf/${profile}.log" 2>&1 &
+  pid=$!
+  trap 'kill ${pid} 2>/dev/null || true' EXIT
+  until curl -sf "${BASE_URL}/actuator/health" > /dev/null; do sleep 1; done
+
+  k6 run -e BASE_URL="${BASE_URL}" -e VUS="${VUS:-2000}" -e DURATION="${DURATION:-60s}" \
+    --summary-export "build/perf/${profile}-summary.json" "${SCRIPT}"
+
+  kill "${pid}"
+  wait "${pid}" 2>/dev/null || true
+done
+
+# reads one statistic of one metric from a k6 summary export: stat <metric> <file> <statistic>
+stat() {
+  tr -d ' \n' < "$2" | sed -E "s/.*\"$1\":\{[^}]*\"$3\":([0-9.eE+-]+).*/\1/"
+}
+printf '\n%-20s %12s %10s %10s %10s %8s\n' profile req/s p50-ms p95-ms p99-ms failed
+for profile in "$@"; do
+  summary="build/perf/${profile}-summary.json"
+  printf '%-20s %12.1f %10.1f %10.1f %10.1f %8.4f\n' "${profile}" \
+    "$(stat http_reqs "${summary}" rate)" \
+    "$(stat http_req_duration "${summary}" 'p\(50\)')" \
+    "$(stat http_req_duration "${summary}" 'p\(95\)')" \
+    "$(stat http_req_duration "${summary}" 'p\(99\)')" \
+    "$(stat http_req_failed "${summary}" value)"
+done
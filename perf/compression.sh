@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Measures what gzip on /books/all costs and saves at several catalog sizes. The application runs once
+# with compression on and library.books.max-list-size raised so /books/all returns the whole catalog.
+# For each size the catalog is grown to that many books, then REQUESTS sequential GETs are made with and
+# without Accept-Encoding: gzip. Bytes on the wire, mean latency and server CPU per request (from
+# /proc/<pid>/stat) go to build/perf/compression.json, one line per size and encoding.
+#
+#   perf/compression.sh 1000 10000 50000
+#
+# REQUESTS tunes the run.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+if [ $# -eq 0 ]; then
+  set -- 1000 10000 50000
+fi
+BASE_URL=${BASE_URL:-http://localhost:8080/library-api}
+REQUESTS=${REQUESTS:-50}
+mkdir -p build/perf
+
+./gradlew -q bootJar
+JAR=$(ls build/libs/*.jar | grep -v -- '-plain' | head -n 1)
+
+cpu_ticks() {
+  awk '{ print $14 + $15 }' "/proc/$1/stat"
+}
+
+seeded=0
+seed_to() {
+  for ((from = seeded; from < $1; from += 1000)); do
+    local items=()
+    for ((i = from; i < from + 1000 && i < $1; i++)); do
+      items+=("{\"title\":\"compression book ${i}\",\"author\":\"author $((i % 500))\"}")
+    done
+    (IFS=,; echo "[${items[*]}]") |
+      curl -sf -o /dev/null -H 'Content-Type: application/json' --data-binary @- "${BASE_URL}/books/batch/add"
+  done
+  seeded=$1
+}
+
+java ${JAVA_OPTS:-} -jar "${JAR}" --server.compression.enabled=true --library.books.max-list-size=1000000 \
+  --library.rate-limit.enabled=false \
+  > build/perf/compression.log 2>&1 &
+pid=$!
+trap 'kill ${pid} 2>/dev/null || true' EXIT
+until curl -sf "${BASE_URL}/actuator/health" > /dev/null; do sleep 1; done
+ticks_per_second=$(getconf CLK_TCK)
+
+: > build/perf/compression.json
+for size in "$@"; do
+  seed_to "${size}"
+  for encoding in identity gzip; do
+    # warm up the listing and the compressor before measuring
+    for ((i = 0; i < 5; i++)); do
+      curl -sf -o /dev/null -H "Accept-Encoding: ${encoding}" "${BASE_URL}/books/all"
+    done
+    before=$(cpu_ticks "${pid}")
+    samples=$(for ((i = 0; i < REQUESTS; i++)); do
+      curl -sf -o /dev/null -H "Accept-Encoding: ${encoding}" -w '%{size_download} %{time_total}\n' "${BASE_URL}/books/all"
+    done)
+    after=$(cpu_ticks "${pid}")
+    echo "${samples}" | awk -v size="${size}" -v encoding="${encoding}" -v requests="${REQUESTS}" \
+      -v cpu="$((after - before))" -v hz="${ticks_per_second}" '
+      { bytes += $1; seconds += $2 }
+      END {
+        printf "{\"books\":%d,\"encoding\":\"%s\",\"bytes\":%.0f,\"meanMillis\":%.2f,\"serverCpuMillis\":%.2f}\n",
+          size, encoding, bytes / requests, seconds * 1000 / requests, cpu * 1000 / hz / requests
+      }' | tee -a build/perf/compression.json
+  done
+done
@@ -0,0 +1,83 @@
+// k6 load test for the database-bound paths, meant to compare pool and Hibernate settings.
+//   k6 run -e VUS=200 -e DURATION=60s perf/db-load-test.js
+// Run the application with --spring.cache.type=none so every read reaches the pool. Half of the
+// virtual users read /books/{id}; the rest post bulk lookups of varying size (IN lists), walk
+// pages, or write batches of 50 books.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/library-api';
+const VUS = parseInt(__ENV.VUS || '200');
+const DURATION = __ENV.DURATION || '60s';
+const SEED_BOOKS = 5000;
+const BATCH_SIZE = 50;
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+function scenario(exec, share) {
+  return { executor: 'constant-vus', exec: exec, vus: Math.max(1, Math.round(VUS * share)), duration: DURATION };
+}
+
+export const options = {
+  scenarios: {
+    findById: scenario('findById', 0.5),
+    lookup: scenario('lookup', 0.2),
+    page: scenario('page', 0.2),
+    batchAdd: scenario('batchAdd', 0.1),
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function books(count, prefix) {
+  const batch = [];
+  for (let i = 0; i < count; i++) {
+    batch.push({ title: `${prefix} title ${i}`, author: `${prefix} author ${i % 50}` });
+  }
+  return batch;
+}
+
+export function setup() {
+  let ids = [];
+  for (let seeded = 0; seeded < SEED_BOOKS; seeded += 1000) {
+    const response = http.post(`${BASE_URL}/books/batch/add`, JSON.stringify(books(1000, 'seed')), JSON_HEADERS);
+    check(response, { 'seeded': (r) => r.status === 200 });
+    ids = ids.concat(response.json('results').map((result) => result.id));
+  }
+  return { ids: ids };
+}
+
+function randomId(data) {
+  return data.ids[Math.floor(Math.random() * data.ids.length)];
+}
+
+export function findById(data) {
+  const response = http.get(`${BASE_URL}/books/${randomId(data)}`, { tags: { name: 'GET /books/{id}' } });
+  check(response, { 'found': (r) => r.status === 200 });
+}
+
+export function lookup(data) {
+  // 1 to 100 ids, so the IN list length varies from call to call
+  const ids = [];
+  const size = 1 + Math.floor(Math.random() * 100);
+  for (let i = 0; i < size; i++) {
+    ids.push(randomId(data));
+  }
+  const response = http.post(`${BASE_URL}/books/lookup`, JSON.stringify(ids),
+      Object.assign({ tags: { name: 'POST /books/lookup' } }, JSON_HEADERS));
+  check(response, { 'looked up': (r) => r.status === 200 });
+}
+
+export function page() {
+  let response = http.get(`${BASE_URL}/books/page?size=50`, { tags: { name: 'GET /books/page' } });
+  check(response, { 'paged': (r) => r.status === 200 });
+  const cursor = response.json('nextCursor');
+  if (cursor) {
+    response = http.get(`${BASE_URL}/books/page?size=50&cursor=${cursor}`, { tags: { name: 'GET /books/page' } });
+    check(response, { 'paged': (r) => r.status === 200 });
+  }
+}
+
+export function batchAdd() {
+  const response = http.post(`${BASE_URL}/books/batch/add`, JSON.stringify(books(BATCH_SIZE, `load ${__VU}-${__ITER}`)),
+      Object.assign({ tags: { name: 'POST /books/batch/add' } }, JSON_HEADERS));
+  check(response, { 'batch saved': (r) => r.status === 200 });
+}
@@ -0,0 +1,53 @@
+// k6 load test for the book endpoints.
+//   k6 run -e VUS=2000 -e DURATION=60s perf/load-test.js
+// 90% of the virtual users read /books/{id}, the rest write through /books/add.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/library-api';
+const VUS = parseInt(__ENV.VUS || '2000');
+const DURATION = __ENV.DURATION || '60s';
+const SEED_BOOKS = 1000;
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+  scenarios: {
+    findById: {
+      executor: 'constant-vus',
+      exec: 'findById',
+      vus: Math.max(1, Math.floor(VUS * 0.9)),
+      duration: DURATION,
+    },
+    add: {
+      executor: 'constant-vus',
+      exec: 'add',
+      vus: Math.max(1, Math.ceil(VUS * 0.1)),
+      duration: DURATION,
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+  const books = [];
+  for (let i = 0; i < SEED_BOOKS; i++) {
+    books.push({ title: `seed title ${i}`, author: `seed author ${i % 50}` });
+  }
+  const response = http.post(`${BASE_URL}/books/batch/add`, JSON.stringify(books), JSON_HEADERS);
+  check(response, { 'seeded': (r) => r.status === 200 });
+  return { ids: response.json('results').map((result) => result.id) };
+}
+
+export function findById(data) {
+  const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+  const response = http.get(`${BASE_URL}/books/${id}`, { tags: { name: 'GET /books/{id}' } });
+  check(response, { 'found': (r) => r.status === 200 });
+}
+
+export function add() {
+  const book = { title: `load title ${__VU}-${__ITER}`, author: `load author ${__VU}` };
+  const response = http.post(`${BASE_URL}/books/add`, JSON.stringify(book),
+      Object.assign({ tags: { name: 'POST /books/add' } }, JSON_HEADERS));
+  // 202 when the application runs with library.ingestion.async-enabled
+  check(response, { 'created': (r) => r.status === 201 || r.status === 202 });
+}
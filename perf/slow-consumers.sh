@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Compares the servlet stack with the reactive profile when clients read slowly. For each profile
+# the catalog is seeded, then CLIENTS concurrent curl processes each stream /books/export at RATE
+# while heap usage and live threads are sampled from the actuator. One summary per profile
+# (bytes delivered, throughput, peak heap, heap per connection, peak threads) goes to build/perf.
+#
+#   perf/slow-consumers.sh default reactive
+#
+# BOOKS, CLIENTS, RATE (curl --limit-rate syntax) and DURATION (seconds) tune the run.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+if [ $# -eq 0 ]; then
+  set -- default reactive
+fi
+BASE_URL=${BASE_URL:-http://localhost:8080/library-api}
+BOOKS=${BOOKS:-20000}
+CLIENTS=${CLIENTS:-500}
+RATE=${RATE:-20k}
+DURATION=${DURATION:-60}
+mkdir -p build/perf
+
+./gradlew -q bootJar
+JAR=$(ls build/libs/*.jar | grep -v -- '-plain' | head -n 1)
+
+metric() {
+  curl -sf "${BASE_URL}/actuator/metrics/$1" | sed -E 's/.*"statistic":"VALUE","value":([0-9.eE+]+).*/\1/'
+}
+
+seed() {
+  for ((from = 0; from < BOOKS; from += 1000)); do
+    local items=()
+    for ((i = from; i < from + 1000 && i < BOOKS; i++)); do
+      items+=("{\"title\":\"slow consumer book ${i}\",\"author\":\"author $((i % 500))\"}")
+    done
+    (IFS=,; echo "[${items[*]}]") |
+      curl -sf -o /dev/null -H 'Content-Type: application/json' --data-binary @- "${BASE_URL}/books/batch/add"
+  done
+}
+
+for profile in "$@"; do
+  echo "=== profile: ${profile}"
+  java ${JAVA_OPTS:-} -jar "${JAR}" --spring.profiles.active="${profile}" --library.rate-limit.enabled=false > "build/perf/${profile}-slow.log" 2>&1 &
+  pid=$!
+  trap 'kill ${pid} 2>/dev/null || true' EXIT
+  until curl -sf "${BASE_URL}/actuator/health" > /dev/null; do sleep 1; done
+  seed
+
+  base_heap=$(metric 'jvm.memory.used?tag=area:heap')
+  bytes_file="build/perf/${profile}-slow-bytes.txt"
+  : > "${bytes_file}"
+  for ((c = 0; c < CLIENTS; c++)); do
+    curl -s --limit-rate "${RATE}" --max-time "${DURATION}" -o /dev/null -w '%{size_download}\n' \
+      "${BASE_URL}/books/export" >> "${bytes_file}" || true &
+  done
+
+  peak_heap=0
+  peak_threads=0
+  for ((t = 0; t < DURATION; t += 5)); do
+    sleep 5
+    heap=$(metric 'jvm.memory.used?tag=area:heap')
+    threads=$(metric jvm.threads.live)
+    peak_heap=$(awk -v a="${peak_heap}" -v b="${heap}" 'BEGIN { print (b > a) ? b : a }')
+    peak_threads=$(awk -v a="${peak_threads}" -v b="${threads}" 'BEGIN { print (b > a) ? b : a }')
+  done
+  wait $(jobs -p | grep -v "^${pid}$") 2>/dev/null || true
+
+  awk -v profile="${profile}" -v clients="${CLIENTS}" -v duration="${DURATION}" \
+    -v base="${base_heap}" -v peak="${peak_heap}" -v threads="${peak_threads}" '
+    { bytes += $1 }
+    END {
+      printf "{\"profile\":\"%s\",\"clients\":%d,\"bytes\":%d,\"bytesPerSecond\":%.0f,", profile, clients, bytes, bytes / duration
+      printf "\"peakHeapBytes\":%.0f,\"heapBytesPerConnection\":%.0f,\"peakLiveThreads\":%d}\n", peak, (peak - base) / clients, threads
+    }' "${bytes_file}" | tee "build/perf/${profile}-slow-consumers.json"
+
+  kill "${pid}"
+  wait "${pid}" 2>/dev/null || true
+done
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Measures time to first request and resident memory for each way of starting the application:
+#   jvm     the executable jar
+#   aot     the executable jar with the AOT-generated bean definitions (-Dspring.aot.enabled=true)
+#   cds     the plain jar from build/cds with its class data sharing archive
+#   native  the GraalVM native image
+# All modes run the prod profile. Time is measured from process launch to the first successful
+# GET /books/count; RSS is read right after that request. Results go to build/perf/startup.json.
+#
+#   perf/startup.sh jvm aot cds native
+#
+# The native mode needs a GraalVM JDK on the PATH; RUNS sets how many starts are averaged per mode.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+if [ $# -eq 0 ]; then
+  set -- jvm aot cds
+fi
+BASE_URL=${BASE_URL:-http://localhost:8080/library-api}
+RUNS=${RUNS:-5}
+mkdir -p build/perf
+
+for mode in "$@"; do
+  case "${mode}" in
+    jvm | aot) ./gradlew -q bootJar ;;
+    cds) ./gradlew -q cdsArchive ;;
+    native) ./gradlew -q nativeCompile ;;
+    *) echo "unknown mode: ${mode}" >&2; exit 1 ;;
+  esac
+done
+JAR=$(ls build/libs/*.jar | grep -v -- '-plain' | head -n 1)
+
+# exec, so the background job's pid is the application's and ps reports its RSS
+launch() {
+  case "$1" in
+    jvm) exec java ${JAVA_OPTS:-} -jar "${JAR}" --spring.profiles.active=prod ;;
+    aot) exec java ${JAVA_OPTS:-} -Dspring.aot.enabled=true -jar "${JAR}" --spring.profiles.active=prod ;;
+    cds) cd build/cds && exec java ${JAVA_OPTS:-} -XX:SharedArchiveFile=application.jsa -jar application.jar \
+           --spring.profiles.active=prod ;;
+    native) exec build/native/nativeCompile/library-api --spring.profiles.active=prod ;;
+  esac
+}
+
+results=()
+printf '%-8s %20s %12s\n' mode first-request-ms rss-mb
+for mode in "$@"; do
+  total_ms=0
+  total_rss=0
+  for ((run = 0; run < RUNS; run++)); do
+    start=$(date +%s%N)
+    launch "${mode}" > "build/perf/startup-${mode}.log" 2>&1 &
+    pid=$!
+    trap 'kill ${pid} 2>/dev/null || true' EXIT
+    until curl -sf -o /dev/null "${BASE_URL}/books/count"; do sleep 0.01; done
+    end=$(date +%s%N)
+    rss_kb=$(ps -o rss= -p "${pid}" | tr -d ' ')
+    kill "${pid}"
+    wait "${pid}" 2>/dev/null || true
+    total_ms=$((total_ms + (end - start) / 1000000))
+    total_rss=$((total_rss + rss_kb))
+  done
+  ms=$((total_ms / RUNS))
+  rss_mb=$((total_rss / RUNS / 1024))
+  printf '%-8s %20d %12d\n' "${mode}" "${ms}" "${rss_mb}"
+  results+=("{\"mode\":\"${mode}\",\"firstRequestMillis\":${ms},\"rssMegabytes\":${rss_mb}}")
+done
+(IFS=,; echo "[${results[*]}]") > build/perf/startup.json
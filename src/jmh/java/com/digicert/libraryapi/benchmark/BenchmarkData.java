@@ -0,0 +1,60 @@
+package com.digicert.libraryapi.benchmark;
+
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.persistance.entity.Book;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic sample data shared by the benchmarks.
+ */
+final class BenchmarkData {
+    private static final String[] WORDS = {"domain", "driven", "design", "patterns", "clean", "code", "java",
+            "concurrency", "practice", "effective", "refactoring", "legacy", "systems", "data", "intensive"};
+    private static final long EPOCH = 1_700_000_000_000L;
+
+    private BenchmarkData() {
+    }
+
+    static List<Book> books(int size) {
+        Random random = new Random(size);
+        List<Book> books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            books.add(Book.builder()
+                    .id((long) i + 1)
+                    .title(title(random, i))
+                    .author(author(random))
+                    .createdOn(new Date(EPOCH + random.nextInt(1_000_000)))
+                    .build());
+        }
+        return books;
+    }
+
+    static List<BookResponse> responses(int size) {
+        return books(size).stream().map(BookResponse::buildResponse).toList();
+    }
+
+    static List<BookRequest> requests(int size, int seed) {
+        Random random = new Random(seed);
+        List<BookRequest> requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            requests.add(BookRequest.builder()
+                    .title(title(random, i))
+                    .author(author(random))
+                    .build());
+        }
+        return requests;
+    }
+
+    private static String title(Random random, int i) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+    }
+
+    private static String author(Random random) {
+        return "author " + random.nextInt(1000);
+    }
+}
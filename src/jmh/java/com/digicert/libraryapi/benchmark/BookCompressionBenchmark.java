@@ -0,0 +1,80 @@
+package com.digicert.libraryapi.benchmark;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The server side of a /books/all response: the listing streamed through a JsonGenerator as the
+ * controller writes it, uncompressed and through gzip at the level Tomcat uses (the Deflater default)
+ * and at the fastest level. The bytes saved, which this CPU cost is weighed against, are checked by
+ * BookControllerTest on the streamed listing and measured end to end by perf/compression.sh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookCompressionBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    private int size;
+
+    private List<BookResponse> books;
+    private ObjectWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        books = BenchmarkData.responses(size);
+        writer = new ObjectMapper()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerFor(BookResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Benchmark
+    public void plain() throws IOException {
+        write(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream gzipDefault() throws IOException {
+        return gzip(-1);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream gzipFastest() throws IOException {
+        return gzip(1);
+    }
+
+    private ByteArrayOutputStream gzip(int level) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 8192) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            write(gzip);
+        }
+        return compressed;
+    }
+
+    private <T extends OutputStream> T write(T out) throws IOException {
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            generator.writeStartArray();
+            for (BookResponse book : books) {
+                writer.writeValue(generator, book);
+            }
+            generator.writeEndArray();
+        }
+        return out;
+    }
+}
@@ -0,0 +1,127 @@
+package com.digicert.libraryapi.benchmark;
+
+import com.digicert.libraryapi.LibraryApiApplication;
+import com.digicert.libraryapi.controller.response.BookPageResponse;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Resolving a set of ids over HTTP: one request per id against the per-id endpoints versus a single
+ * call to the bulk endpoints. The application cache is off so every id costs a SQL round-trip,
+ * as it does for a reconciler walking ids it has not seen recently.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BookLookupBenchmark {
+    private static final int ROWS = 10_000;
+
+    @Param({"10", "100", "1000"})
+    private int ids;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private List<Long> lookupIds;
+    private String lookupBody;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryApiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:lookup-" + ids,
+                        "spring.cache.type=none",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.digicert=WARN",
+                        "library.books.max-batch-size=1000",
+                        "library.rate-limit.enabled=false")
+                .run();
+        BookService bookService = context.getBean(BookService.class);
+        for (int seeded = 0; seeded < ROWS; seeded += 1000) {
+            bookService.saveAll(BenchmarkData.requests(1000, seeded));
+        }
+
+        // every other id is known, so both outcomes of an existence check are exercised
+        lookupIds = new ArrayList<>(ids);
+        BookPageResponse page = bookService.findPage(null, 100);
+        while (lookupIds.size() < ids) {
+            for (BookResponse book : page.getBooks()) {
+                if (lookupIds.size() < ids) {
+                    lookupIds.add(book.getId());
+                    lookupIds.add(-book.getId());
+                }
+            }
+            page = bookService.findPage(page.getNextCursor(), 100);
+        }
+        lookupIds = lookupIds.subList(0, ids);
+        lookupBody = lookupIds.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+
+        client = HttpClient.newHttpClient();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/library-api/books/";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int findByIdEach() throws IOException, InterruptedException {
+        int found = 0;
+        for (Long id : lookupIds) {
+            if (get(baseUrl + id).statusCode() == 200) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public String lookup() throws IOException, InterruptedException {
+        return post(baseUrl + "lookup").body();
+    }
+
+    @Benchmark
+    public int existsByIdEach() throws IOException, InterruptedException {
+        int found = 0;
+        for (Long id : lookupIds) {
+            if (Boolean.parseBoolean(get(baseUrl + "exists/" + id).body())) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public String exists() throws IOException, InterruptedException {
+        return post(baseUrl + "exists").body();
+    }
+
+    private HttpResponse<String> get(String url) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String url) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(lookupBody))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
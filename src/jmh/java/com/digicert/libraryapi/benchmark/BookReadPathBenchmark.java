@@ -0,0 +1,93 @@
+package com.digicert.libraryapi.benchmark;
+
+import com.digicert.libraryapi.LibraryApiApplication;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.persistance.repository.BookRepository;
+import com.digicert.libraryapi.service.BookService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing and single-book reads through managed entities copied into responses (the read path before
+ * the constructor-expression projections) against the projections now used by BookService. Both run in
+ * read-only transactions; with the gc profiler the allocation rate per operation is reported as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookReadPathBenchmark {
+    private static final int ROWS = 10_000;
+    private static final String ENTITY_LISTING = "select b from Book b order by b.createdOn desc, b.title desc, b.id desc";
+
+    @Param({"100", "1000"})
+    private int listSize;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private Long knownId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:read-path-" + listSize,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.digicert=WARN",
+                        "library.books.max-batch-size=1000")
+                .run();
+        BookService bookService = context.getBean(BookService.class);
+        for (int seeded = 0; seeded < ROWS; seeded += 1000) {
+            bookService.saveAll(BenchmarkData.requests(1000, seeded));
+        }
+        bookRepository = context.getBean(BookRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        knownId = bookRepository.findResponses(PageRequest.ofSize(1)).get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookResponse> entityListing() {
+        return readOnly.execute(status -> entityManager.createQuery(ENTITY_LISTING, Book.class)
+                .setMaxResults(listSize)
+                .getResultList()
+                .stream()
+                .map(BookResponse::buildResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<BookResponse> projectionListing() {
+        return readOnly.execute(status -> bookRepository.findResponses(PageRequest.ofSize(listSize)));
+    }
+
+    @Benchmark
+    public BookResponse entityById() {
+        return readOnly.execute(status -> BookResponse.buildResponse(entityManager.find(Book.class, knownId)));
+    }
+
+    @Benchmark
+    public BookResponse projectionById() {
+        return readOnly.execute(status -> bookRepository.findResponseById(knownId).orElseThrow());
+    }
+}
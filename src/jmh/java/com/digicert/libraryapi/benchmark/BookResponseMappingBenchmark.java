@@ -0,0 +1,37 @@
+package com.digicert.libraryapi.benchmark;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.persistance.entity.Book;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of copying a Book entity into its BookResponse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookResponseMappingBenchmark {
+
+    private Book book;
+    private List<Book> books;
+
+    @Setup
+    public void setUp() {
+        books = BenchmarkData.books(1000);
+        book = books.get(0);
+    }
+
+    @Benchmark
+    public BookResponse buildResponse() {
+        return BookResponse.buildResponse(book);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public List<BookResponse> buildResponses() {
+        return books.stream().map(BookResponse::buildResponse).toList();
+    }
+}
@@ -0,0 +1,45 @@
+package com.digicert.libraryapi.benchmark;
+
+import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.service.search.BookSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the in-memory search index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookSearchIndexBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private BookSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new BookSearchIndex(null);
+        for (Book book : BenchmarkData.books(size)) {
+            index.put(book.getId(), book.getTitle(), book.getAuthor());
+        }
+    }
+
+    @Benchmark
+    public List<Long> exactTerm() {
+        return index.search("refactoring", 20);
+    }
+
+    @Benchmark
+    public List<Long> twoTermsWithPrefix() {
+        return index.search("clean conc", 20);
+    }
+
+    @Benchmark
+    public List<Long> rareTerm() {
+        return index.search("author 42", 20);
+    }
+}
@@ -0,0 +1,46 @@
+package com.digicert.libraryapi.benchmark;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of book listings, configured like Spring Boot's ObjectMapper
+ * (dates as ISO strings).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private List<BookResponse> books;
+    private ObjectWriter listWriter;
+
+    @Setup
+    public void setUp() {
+        books = BenchmarkData.responses(size);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, BookResponse.class));
+    }
+
+    @Benchmark
+    public byte[] toBytes() throws Exception {
+        return listWriter.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public void toStream() throws Exception {
+        listWriter.writeValue(OutputStream.nullOutputStream(), books);
+    }
+}
@@ -0,0 +1,113 @@
+package com.digicert.libraryapi.benchmark;
+
+import com.digicert.libraryapi.LibraryApiApplication;
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.response.BatchResponse;
+import com.digicert.libraryapi.controller.response.BookPageResponse;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end BookService calls against an embedded H2 catalog of the given size,
+ * through the same Spring context the application runs with (minus the web server).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookServiceBenchmark {
+    private static final int BATCH_SIZE = 100;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private Long knownId;
+    private String deepCursor;
+    private List<BookRequest> batch;
+    private BookRequest single;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + rows,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.digicert=WARN",
+                        "library.books.max-batch-size=1000")
+                .run();
+        bookService = context.getBean(BookService.class);
+
+        for (int seeded = 0; seeded < rows; seeded += 1000) {
+            bookService.saveAll(BenchmarkData.requests(Math.min(1000, rows - seeded), seeded));
+        }
+
+        // walk to the last full page so deepPage measures a seek near the end of the catalog
+        BookPageResponse page = bookService.findPage(null, PAGE_SIZE);
+        knownId = page.getBooks().get(0).getId();
+        while (page.isHasNext()) {
+            deepCursor = page.getNextCursor();
+            page = bookService.findPage(deepCursor, PAGE_SIZE);
+        }
+        batch = BenchmarkData.requests(BATCH_SIZE, -1);
+        single = batch.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookResponse findById() {
+        return bookService.findById(knownId);
+    }
+
+    @Benchmark
+    public BookPageResponse firstPage() {
+        return bookService.findPage(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public BookPageResponse deepPage() {
+        return bookService.findPage(deepCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookResponse> findAll() {
+        return bookService.findAll();
+    }
+
+    @Benchmark
+    public List<BookResponse> search() {
+        return bookService.search("design pat", 20);
+    }
+
+    @Benchmark
+    public long count() {
+        return bookService.count();
+    }
+
+    @Benchmark
+    public BookResponse saveOne() {
+        return bookService.save(single);
+    }
+
+    /**
+     * reported per book so it compares directly with {@link #saveOne()}
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchResponse saveBatch() {
+        return bookService.saveAll(batch);
+    }
+}
@@ -0,0 +1,66 @@
+package com.digicert.libraryapi.benchmark;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of book listings in the wire formats WebConfig negotiates: JSON as Spring Boot
+ * configures it (ISO dates), and CBOR and Smile with epoch-millisecond dates, Smile with shared string
+ * values. The payload sizes behind these timings are pinned down by WebConfigTest rather than printed here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookWireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private List<BookResponse> books;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        books = BenchmarkData.responses(size);
+        ObjectMapper objectMapper = switch (format) {
+            case "json" -> new ObjectMapper(new JsonFactory())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            case "smile" -> new ObjectMapper(SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build());
+            default -> throw new IllegalArgumentException("unknown format " + format);
+        };
+        CollectionType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, BookResponse.class);
+        writer = objectMapper.writerFor(listType);
+        reader = objectMapper.readerFor(listType);
+        encoded = writer.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public List<BookResponse> deserialize() throws Exception {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,42 @@
+package com.digicert.libraryapi.benchmark;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of putting the catalog in listing order (createdOn, title, id descending) on the heap,
+ * which is what BookServiceImpl.findAll did before the ordering was pushed into the database.
+ * Compare with BookServiceBenchmark, which reads the same order one keyset page at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListingOrderBenchmark {
+    private static final Comparator<BookResponse> LISTING_ORDER = Comparator
+            .comparing(BookResponse::getCreatedOn, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(BookResponse::getTitle)
+            .thenComparing(BookResponse::getId)
+            .reversed();
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private List<BookResponse> books;
+
+    @Setup
+    public void setUp() {
+        books = BenchmarkData.responses(size);
+    }
+
+    @Benchmark
+    public List<BookResponse> sortInMemory() {
+        List<BookResponse> sorted = new ArrayList<>(books);
+        sorted.sort(LISTING_ORDER);
+        return sorted;
+    }
+}
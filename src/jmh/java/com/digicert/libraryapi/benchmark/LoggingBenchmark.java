@@ -0,0 +1,85 @@
+package com.digicert.libraryapi.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a findAll log line costs the request thread: the full listing rendered through
+ * Lombok toString against the count-only summary, on a synchronous and on an async appender.
+ * Run with the gc profiler (the default in build.gradle) to see bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggingBenchmark {
+
+    @Param({"false", "true"})
+    private boolean async;
+
+    @Param({"1000"})
+    private int size;
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+    private List<BookResponse> books;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d %5level [%thread] %logger : %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(loggerContext);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        Appender<ILoggingEvent> appender = sink;
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(sink);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+
+        logger = loggerContext.getLogger("benchmark");
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+        books = BenchmarkData.responses(size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void fullPayloadAtInfo() {
+        logger.info("findAll success response:{}", books);
+    }
+
+    @Benchmark
+    public void summaryAtInfoPayloadAtDebug() {
+        logger.info("findAll success, books: {}", books.size());
+        logger.debug("findAll success response:{}", books);
+    }
+}
@@ -0,0 +1,49 @@
+package com.digicert.libraryapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "library.books")
+public class BookProperties {
+    /**
+     * page size used by /books/page when the client does not ask for one
+     */
+    private int defaultPageSize = 20;
+    /**
+     * upper bound for the page size a client can ask for
+     */
+    private int maxPageSize = 100;
+    /**
+     * hard cap on the number of books returned by /books/all
+     */
+    private int maxListSize = 1000;
+    /**
+     * upper bound for the number of items in a single batch request
+     */
+    private int maxBatchSize = 1000;
+    /**
+     * number of ids bound into a single IN query by the bulk lookup and exists endpoints
+     */
+    private int lookupChunkSize = 500;
+    /**
+     * books read per query while /books/all and /books/export stream; the connection goes back to the
+     * pool between chunks instead of staying open while a slow client reads
+     */
+    private int streamChunkSize = 500;
+    /**
+     * how often the in-memory book count is reconciled with the database
+     */
+    private Duration countReconcileInterval = Duration.ofMinutes(1);
+    /**
+     * max-age sent in the Cache-Control header of book reads; clients and CDNs revalidate
+     * with the ETag after it expires
+     */
+    private Duration httpCacheMaxAge = Duration.ofSeconds(10);
+}
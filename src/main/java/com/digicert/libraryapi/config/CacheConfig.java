@@ -0,0 +1,16 @@
+package com.digicert.libraryapi.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read-through caches in front of BookRepository. Size, TTL and stats recording come from
+ * spring.cache.caffeine.spec in application.yml; hit/miss/eviction counters are published
+ * by actuator as the cache.gets / cache.evictions metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String BOOKS = "books";
+    public static final String BOOK_EXISTS = "bookExists";
+}
@@ -0,0 +1,32 @@
+package com.digicert.libraryapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "library.events")
+public class EventProperties {
+    /**
+     * most recent change events kept for subscribers resuming with Last-Event-ID
+     */
+    private int historySize = 10_000;
+    /**
+     * events waiting to be sent to one subscriber; a subscriber that falls further behind is
+     * disconnected and resumes from the history when it reconnects
+     */
+    private int subscriberBufferSize = 256;
+    /**
+     * how long one event stream stays open before the client has to reconnect
+     */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+    /**
+     * interval of the comment lines that keep idle streams open and detect gone clients
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
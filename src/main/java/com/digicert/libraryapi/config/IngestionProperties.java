@@ -0,0 +1,48 @@
+package com.digicert.libraryapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "library.ingestion")
+public class IngestionProperties {
+    /**
+     * when true POST /books/add queues the book and answers 202, a background flusher inserts it
+     */
+    private boolean asyncEnabled = false;
+    /**
+     * books waiting to be written before new submissions are rejected with 429
+     */
+    private int queueCapacity = 10_000;
+    /**
+     * the flusher writes as soon as this many books are queued, and never more than this per batch
+     */
+    private int flushSize = 500;
+    /**
+     * longest a queued book waits for a flush when fewer than flush-size books are queued
+     */
+    private Duration flushInterval = Duration.ofMillis(100);
+    /**
+     * how long shutdown waits for the flusher before draining the rest of the queue itself
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+    /**
+     * times a failed batch is retried ahead of the queue before its books are inserted one by one
+     */
+    private int maxRetries = 3;
+    /**
+     * wait before the first retry of a failed batch, doubled for every further retry
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+    /**
+     * books that could not be inserted even one by one are appended here as json lines
+     */
+    private Path deadLetterFile = Path.of("build/ingestion/dead-letter.ndjson");
+}
@@ -0,0 +1,44 @@
+package com.digicert.libraryapi.config;
+
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.exception.LibraryApiError;
+import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.persistance.projection.BookRevision;
+import com.digicert.libraryapi.persistance.projection.BookVersion;
+import com.digicert.libraryapi.persistance.projection.CatalogRevision;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflection hints for the native image. Spring AOT infers most of them from the controllers and the JPA
+ * mapping; these cover what it cannot see: Jackson binding the request and response bodies through their
+ * Lombok accessors, Hibernate instantiating Book, and the constructor expressions in BookRepository and its fragments.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeConfig.LibraryApiRuntimeHints.class)
+public class NativeConfig {
+
+    static class LibraryApiRuntimeHints implements RuntimeHintsRegistrar {
+
+        static final List<Class<?>> REFLECTIVE_TYPES = List.of(Book.class, BookRequest.class, BookResponse.class,
+                LibraryApiError.class, BookRevision.class, CatalogRevision.class, BookVersion.class,
+                BookChangedEvent.class);
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> type : REFLECTIVE_TYPES) {
+                hints.reflection().registerType(type,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.digicert.libraryapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "library.outbox")
+public class OutboxProperties {
+    /**
+     * when true every book change also writes an OUTBOX row and the relay publishes them to the sink
+     */
+    private boolean enabled = false;
+    /**
+     * where relayed events go: log or file
+     */
+    private String sink = "log";
+    /**
+     * file the file sink appends newline-delimited json to
+     */
+    private Path file = Path.of("build/outbox/book-changes.ndjson");
+    /**
+     * events claimed, published and deleted per relay transaction
+     */
+    private int batchSize = 500;
+    /**
+     * pause between relay runs once the outbox has been drained
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+    /**
+     * full batches relayed in one run before the relay yields to the next poll
+     */
+    private int maxBatchesPerPoll = 20;
+}
@@ -0,0 +1,68 @@
+package com.digicert.libraryapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "library.rate-limit")
+public class RateLimitProperties {
+    /**
+     * when true every /books request passes the per-client token bucket and the concurrency limiter
+     */
+    private boolean enabled = true;
+    /**
+     * header naming the client, such as X-Forwarded-For or a gateway's own header; unset by default, and
+     * only read on requests from trusted-proxies, every other request is keyed on its remote address
+     */
+    private String clientIdHeader;
+    /**
+     * CIDR blocks or addresses of the proxies allowed to set client-id-header
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+    /**
+     * tokens a client can spend at once
+     */
+    private int burst = 100;
+    /**
+     * tokens each client's bucket regains per second
+     */
+    private double tokensPerSecond = 50;
+    /**
+     * tokens a request costs by path pattern, first match wins; unmatched requests cost one token
+     */
+    private Map<String, Integer> costs = new LinkedHashMap<>();
+    /**
+     * clients whose buckets are kept; idle buckets are dropped first and start full when the client returns
+     */
+    private long maxClients = 100_000;
+    private Concurrency concurrency = new Concurrency();
+
+    @Getter
+    @Setter
+    public static class Concurrency {
+        /**
+         * requests allowed in flight at start-up
+         */
+        private int initialLimit = 200;
+        private int minLimit = 20;
+        private int maxLimit = 1000;
+        /**
+         * a request slower than this counts as a sign of overload and shrinks the limit
+         */
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        /**
+         * the factor the limit is multiplied by on overload, at most once per latency-threshold
+         */
+        private double backoffRatio = 0.9;
+    }
+}
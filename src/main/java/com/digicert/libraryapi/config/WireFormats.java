@@ -0,0 +1,85 @@
+package com.digicert.libraryapi.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The encodings the book API speaks and the {@link ObjectMapper} for each: Boot's mapper for JSON, and
+ * CBOR and Smile mappers built from the same builder that write dates as epoch milliseconds. Used by
+ * {@link WebConfig} for the message converters and by endpoints that write their body with a generator.
+ */
+@Component
+public class WireFormats {
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+
+    public WireFormats(ObjectMapper objectMapper, ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        // JSON first, so a client that accepts anything gets JSON
+        mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        mappers.put(MediaType.APPLICATION_CBOR, binaryMapper(objectMapperBuilder, new CBORFactory()));
+        // authors and titles repeat across a listing, shared values are written once and referenced after
+        mappers.put(APPLICATION_SMILE, binaryMapper(objectMapperBuilder, SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build()));
+    }
+
+    public ObjectMapper cbor() {
+        return mappers.get(MediaType.APPLICATION_CBOR);
+    }
+
+    public ObjectMapper smile() {
+        return mappers.get(APPLICATION_SMILE);
+    }
+
+    public ObjectMapper mapperFor(MediaType mediaType) {
+        return mappers.get(mediaType);
+    }
+
+    /**
+     * @param accept the Accept header, JSON when absent
+     * @return the supported encoding the client prefers, by quality value and then in the order above
+     */
+    public MediaType negotiate(String accept) throws HttpMediaTypeNotAcceptableException {
+        if (!StringUtils.hasText(accept)) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType acceptedType : accepted) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType supported : mappers.keySet()) {
+                if (acceptedType.includes(supported)) {
+                    return supported;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(List.copyOf(mappers.keySet()));
+    }
+
+    private static ObjectMapper binaryMapper(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder,
+                                             JsonFactory factory) {
+        return objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::json)
+                .factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
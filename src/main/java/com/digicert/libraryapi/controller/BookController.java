@@ -1,30 +1,68 @@
 package com.digicert.libraryapi.controller;
 
+import com.digicert.libraryapi.config.BookProperties;
+import com.digicert.libraryapi.config.WireFormats;
+import com.digicert.libraryapi.controller.request.BookFilterRequest;
 import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.request.BookUpdateRequest;
+import com.digicert.libraryapi.controller.response.BatchResponse;
+import com.digicert.libraryapi.controller.response.BookPageResponse;
 import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.persistance.projection.BookRevision;
+import com.digicert.libraryapi.persistance.projection.CatalogRevision;
 import com.digicert.libraryapi.service.BookService;
+import com.digicert.libraryapi.service.event.BookChangeBroadcaster;
+import com.digicert.libraryapi.service.ingestion.BookIngestionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Tag(name = "BOOKS")
 @RestController
 @RequestMapping("books/")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @CrossOrigin(origins = "http://localhost:3000")
 public class BookController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final BookService bookService;
+    private final BookIngestionService bookIngestionService;
+    private final BookChangeBroadcaster bookChangeBroadcaster;
+    private final ObjectMapper objectMapper;
+    private final BookProperties bookProperties;
+    private final WireFormats wireFormats;
 
     @PostMapping("/add")
-    @ResponseStatus(HttpStatus.CREATED)
-    @Operation(summary = "save books given book request")
-    public BookResponse save(@RequestBody BookRequest book) {
-        return bookService.save(book);
+    @Operation(summary = "save books given book request, answers 202 when the book is queued for write-behind ingestion")
+    public ResponseEntity<BookResponse> save(@RequestBody BookRequest book) {
+        if (bookIngestionService.isEnabled()) {
+            return ResponseEntity.accepted().body(bookIngestionService.submit(book));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(bookService.save(book));
     }
 
     @PutMapping("/update")
@@ -34,11 +72,57 @@ public class BookController {
         return bookService.update(book, id);
     }
 
-    @GetMapping("/{id}")
+    @PostMapping("/batch/add")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "save a batch of books, reporting the outcome of every item")
+    public BatchResponse saveAll(@RequestBody List<BookRequest> books) {
+        return bookService.saveAll(books);
+    }
+
+    @PutMapping("/batch/update")
     @ResponseStatus(HttpStatus.OK)
-    @Operation(summary = "find book for a given id")
-    public BookResponse findById(@PathVariable Long id) {
-        return bookService.findById(id);
+    @Operation(summary = "update a batch of books, reporting the outcome of every item")
+    public BatchResponse updateAll(@RequestBody List<BookUpdateRequest> books) {
+        return bookService.updateAll(books);
+    }
+
+    @PostMapping("/batch/delete")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "delete a batch of books given their ids, reporting the outcome of every item")
+    public BatchResponse deleteAll(@RequestBody List<Long> ids) {
+        return bookService.deleteAll(ids);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "find book for a given id, answers 304 when If-None-Match or If-Modified-Since still hold")
+    public ResponseEntity<BookResponse> findById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null
+                && request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null) {
+            // nothing to revalidate: the cached book is served and the ETag describes exactly that body
+            BookResponse book = bookService.findById(id);
+            return ResponseEntity.ok()
+                    .eTag(bookETag(id, book.getVersion()))
+                    .cacheControl(cacheControl())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(book);
+        }
+
+        // revalidation is answered from the database, a lagging cache entry never confirms a stale copy
+        BookRevision revision = bookService.findRevision(id);
+        long lastModified = revision.getLastModified() == null ? -1 : revision.getLastModified().getTime();
+        if (request.checkNotModified(bookETag(id, revision.getVersion()), lastModified)) {
+            // 304 already committed, the book is never loaded or serialized
+            return null;
+        }
+        BookResponse book = bookService.findById(id);
+        if (!Objects.equals(book.getVersion(), revision.getVersion())) {
+            // the cache entry is behind the revision the validators were just set from
+            book = bookService.refreshById(id);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(book);
     }
 
     @GetMapping("/exists/{id}")
@@ -48,11 +132,92 @@ public class BookController {
         return bookService.existsById(id);
     }
 
+    @PostMapping("/lookup")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "find the books for a list of ids in one call, unknown ids are left out")
+    public List<BookResponse> lookup(@RequestBody List<Long> ids) {
+        return bookService.findAllById(ids);
+    }
+
+    @PostMapping("/exists")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "given a list of ids returns the ids of the books that exist")
+    public Set<Long> existsAll(@RequestBody List<Long> ids) {
+        return bookService.findExistingIds(ids);
+    }
+
     @GetMapping("/all")
+    @Operation(summary = "finds the most recent books in the library, capped at library.books.max-list-size")
+    public ResponseEntity<StreamingResponseBody> findAll(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        MediaType mediaType = wireFormats.negotiate(accept);
+        CatalogRevision revision = bookService.findCatalogRevision();
+        long lastModified = revision.getLastModified() == null ? -1 : revision.getLastModified().getTime();
+        String eTag = "W/\"all-" + revision.getCount() + "-" + lastModified + "\"";
+        if (request.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+        // the array is written element by element as rows are read, the listing is never held as a List
+        ObjectWriter writer = wireFormats.mapperFor(mediaType).writerFor(BookResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                bookService.findAll(book -> writeValue(writer, generator, book));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(mediaType)
+                .body(body);
+    }
+
+    @GetMapping("/page")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "finds a page of books, newest first, continuing after the given cursor")
+    public BookPageResponse findPage(@RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer size) {
+        return bookService.findPage(cursor, size);
+    }
+
+    @GetMapping("/filter")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "finds a page of books by author, title prefix and creation date range, newest first")
+    public BookPageResponse filter(@ParameterObject BookFilterRequest filter) {
+        return bookService.filter(filter);
+    }
+
+    @GetMapping("/search")
     @ResponseStatus(HttpStatus.OK)
-    @Operation(summary = "finds all the books in the library")
-    public List<BookResponse> findAll() {
-        return bookService.findAll();
+    @Operation(summary = "search books by title and author, best match first")
+    public List<BookResponse> search(@RequestParam("q") String query,
+                                     @RequestParam(required = false) Integer limit) {
+        return bookService.search(query, limit);
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "streams every book in the library as newline-delimited json")
+    public ResponseEntity<StreamingResponseBody> export() {
+        ObjectWriter writer = objectMapper.writerFor(BookResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                bookService.exportAll(book -> writeLine(writer, generator, book));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "server-sent stream of created, updated and deleted books, resumable with Last-Event-ID")
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return bookChangeBroadcaster.subscribe(lastEventId);
     }
 
     @GetMapping("/count")
@@ -68,4 +233,34 @@ public class BookController {
     public void deleteById(@PathVariable Long id) {
         bookService.deleteById(id);
     }
+
+    /**
+     * weak, the same revision is sent in several encodings and gzip-compressed or not
+     */
+    private static String bookETag(Long id, Long version) {
+        return "W/\"" + id + "-" + version + "\"";
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(bookProperties.getHttpCacheMaxAge())
+                .cachePublic()
+                .mustRevalidate();
+    }
+
+    private static void writeValue(ObjectWriter writer, JsonGenerator generator, BookResponse book) {
+        try {
+            writer.writeValue(generator, book);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeLine(ObjectWriter writer, JsonGenerator generator, BookResponse book) {
+        try {
+            writer.writeValue(generator, book);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
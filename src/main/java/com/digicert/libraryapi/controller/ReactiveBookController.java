@@ -0,0 +1,161 @@
+package com.digicert.libraryapi.controller;
+
+import com.digicert.libraryapi.controller.request.BookFilterRequest;
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.request.BookUpdateRequest;
+import com.digicert.libraryapi.controller.response.BatchResponse;
+import com.digicert.libraryapi.controller.response.BookPageResponse;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.service.ReactiveBookService;
+import com.digicert.libraryapi.service.ingestion.BookIngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The {@link BookController} API on WebFlux, active with the reactive profile. Conditional GETs are
+ * not supported here, and RateLimitFilter does not run: it is a servlet filter, so requests on this
+ * stack are neither rate limited nor held to the concurrency limit.
+ */
+@Tag(name = "BOOKS")
+@RestController
+@RequestMapping("books/")
+@Profile("reactive")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReactiveBookController {
+
+    private final ReactiveBookService reactiveBookService;
+    private final BookIngestionService bookIngestionService;
+
+    @PostMapping("/add")
+    @Operation(summary = "save books given book request, answers 202 when the book is queued for write-behind ingestion")
+    public Mono<ResponseEntity<BookResponse>> save(@RequestBody BookRequest book) {
+        if (bookIngestionService.isEnabled()) {
+            // taking an id may fetch the next block from the sequence, so it runs off the event loop
+            return Mono.fromCallable(() -> bookIngestionService.submit(book))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .map(queued -> ResponseEntity.accepted().body(queued));
+        }
+        return reactiveBookService.save(book)
+                .map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved));
+    }
+
+    @PutMapping("/update")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "update books given book request")
+    public Mono<BookResponse> update(@RequestBody BookRequest book, @RequestParam Long id) {
+        return reactiveBookService.update(book, id);
+    }
+
+    @PostMapping("/batch/add")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "save a batch of books, reporting the outcome of every item")
+    public Mono<BatchResponse> saveAll(@RequestBody List<BookRequest> books) {
+        return reactiveBookService.saveAll(books);
+    }
+
+    @PutMapping("/batch/update")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "update a batch of books, reporting the outcome of every item")
+    public Mono<BatchResponse> updateAll(@RequestBody List<BookUpdateRequest> books) {
+        return reactiveBookService.updateAll(books);
+    }
+
+    @PostMapping("/batch/delete")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "delete a batch of books given their ids, reporting the outcome of every item")
+    public Mono<BatchResponse> deleteAll(@RequestBody List<Long> ids) {
+        return reactiveBookService.deleteAll(ids);
+    }
+
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "find book for a given id")
+    public Mono<BookResponse> findById(@PathVariable Long id) {
+        return reactiveBookService.findById(id);
+    }
+
+    @GetMapping("/exists/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "given an id this operation checks if the book exists ")
+    public Mono<Boolean> existsById(@PathVariable Long id) {
+        return reactiveBookService.existsById(id);
+    }
+
+    @PostMapping("/lookup")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "find the books for a list of ids in one call, unknown ids are left out")
+    public Flux<BookResponse> lookup(@RequestBody List<Long> ids) {
+        return reactiveBookService.findAllById(ids);
+    }
+
+    @PostMapping("/exists")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "given a list of ids returns the ids of the books that exist")
+    public Mono<Set<Long>> existsAll(@RequestBody List<Long> ids) {
+        return reactiveBookService.findExistingIds(ids);
+    }
+
+    @GetMapping("/all")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "finds the most recent books in the library, capped at library.books.max-list-size")
+    public Flux<BookResponse> findAll() {
+        return reactiveBookService.findAll();
+    }
+
+    @GetMapping("/page")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "finds a page of books, newest first, continuing after the given cursor")
+    public Mono<BookPageResponse> findPage(@RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer size) {
+        return reactiveBookService.findPage(cursor, size);
+    }
+
+    @GetMapping("/filter")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "finds a page of books by author, title prefix and creation date range, newest first")
+    public Mono<BookPageResponse> filter(BookFilterRequest filter) {
+        return reactiveBookService.filter(filter);
+    }
+
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "search books by title and author, best match first")
+    public Flux<BookResponse> search(@RequestParam("q") String query,
+                                     @RequestParam(required = false) Integer limit) {
+        return reactiveBookService.search(query, limit);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "streams every book in the library as newline-delimited json, paced by the client")
+    public Flux<BookResponse> export() {
+        return reactiveBookService.exportAll();
+    }
+
+    @GetMapping("/count")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "count books in the library")
+    public Mono<Long> count() {
+        return reactiveBookService.count();
+    }
+
+    @DeleteMapping("/delete/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "delete a book for a given id")
+    public Mono<Void> deleteById(@PathVariable Long id) {
+        return reactiveBookService.deleteById(id);
+    }
+}
@@ -0,0 +1,85 @@
+package com.digicert.libraryapi.controller.advice;
+
+import com.digicert.libraryapi.exception.BookConflictException;
+import com.digicert.libraryapi.exception.BookNotFoundException;
+import com.digicert.libraryapi.exception.IngestionQueueFullException;
+import com.digicert.libraryapi.exception.LibraryApiError;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The {@link RestExceptionHandler} mapping for WebFlux, so both stacks answer with the same statuses
+ * and {@link LibraryApiError} bodies. RateLimitFilter is a servlet filter and has no WebFlux counterpart,
+ * so the 429 and 503 it produces never occur on this stack and have no mapping here.
+ */
+@Slf4j
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRestExceptionHandler {
+
+    private ResponseEntity<Object> buildResponseEntity(LibraryApiError apiError) {
+        return new ResponseEntity<>(apiError, apiError.getStatus());
+    }
+
+    @ExceptionHandler(BookNotFoundException.class)
+    public ResponseEntity<Object> handleBookNotFoundRequest(BookNotFoundException ex) {
+        logException(ex);
+        return buildResponseEntity(new LibraryApiError(HttpStatus.NOT_FOUND, ex));
+    }
+
+    @ExceptionHandler({BookConflictException.class,
+            OptimisticLockingFailureException.class,
+            OptimisticLockException.class})
+    public ResponseEntity<Object> handleConflict(RuntimeException ex) {
+        logException(ex);
+        return buildResponseEntity(new LibraryApiError(HttpStatus.CONFLICT,
+                "book was modified concurrently, reload it and retry", ex));
+    }
+
+    @ExceptionHandler(IngestionQueueFullException.class)
+    public ResponseEntity<Object> handleQueueFull(IngestionQueueFullException ex) {
+        log.warn("rejecting submission : {}", ex.getMessage());
+        LibraryApiError apiError = new LibraryApiError(HttpStatus.TOO_MANY_REQUESTS, ex);
+        return ResponseEntity.status(apiError.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(apiError);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Object> handleBadRequest(IllegalArgumentException ex) {
+        logException(ex);
+        return buildResponseEntity(new LibraryApiError(HttpStatus.BAD_REQUEST, ex));
+    }
+
+    /**
+     * binding and decoding failures raised by WebFlux itself, malformed JSON keeps the servlet message
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Object> handleResponseStatus(ResponseStatusException ex) {
+        logException(ex);
+        HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+        if (ex.getCause() instanceof DecodingException) {
+            return buildResponseEntity(new LibraryApiError(HttpStatus.BAD_REQUEST, "Malformed JSON request", ex));
+        }
+        return buildResponseEntity(new LibraryApiError(status == null ? HttpStatus.BAD_REQUEST : status, ex));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Object> handleGenericExceptions(Exception ex) {
+        logException(ex);
+        return buildResponseEntity(new LibraryApiError(HttpStatus.INTERNAL_SERVER_ERROR, ex));
+    }
+
+    private <T extends Throwable> void logException(T exception) {
+        log.error("error processing request : {}", exception.getMessage(), exception);
+    }
+}
@@ -1,8 +1,15 @@
 package com.digicert.libraryapi.controller.advice;
 
+import com.digicert.libraryapi.exception.BookConflictException;
 import com.digicert.libraryapi.exception.BookNotFoundException;
+import com.digicert.libraryapi.exception.IngestionQueueFullException;
 import com.digicert.libraryapi.exception.LibraryApiError;
+import com.digicert.libraryapi.exception.RateLimitExceededException;
+import com.digicert.libraryapi.exception.ServiceOverloadedException;
+import jakarta.persistence.OptimisticLockException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -15,6 +22,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 @Slf4j
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     @Override
     protected ResponseEntity<Object> handleHttpMessageNotReadable(HttpMessageNotReadableException ex,
@@ -36,6 +44,42 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     }
 
 
+    @ExceptionHandler({BookConflictException.class,
+            OptimisticLockingFailureException.class,
+            OptimisticLockException.class})
+    public ResponseEntity<Object> handleConflict(RuntimeException ex) {
+        logException(ex);
+        return buildResponseEntity(new LibraryApiError(HttpStatus.CONFLICT,
+                "book was modified concurrently, reload it and retry", ex));
+    }
+
+    @ExceptionHandler(IngestionQueueFullException.class)
+    public ResponseEntity<Object> handleQueueFull(IngestionQueueFullException ex) {
+        log.warn("rejecting submission : {}", ex.getMessage());
+        LibraryApiError apiError = new LibraryApiError(HttpStatus.TOO_MANY_REQUESTS, ex);
+        return ResponseEntity.status(apiError.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(apiError);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Object> handleRateLimitExceeded(RateLimitExceededException ex) {
+        log.warn("rejecting request : {}", ex.getMessage());
+        LibraryApiError apiError = new LibraryApiError(HttpStatus.TOO_MANY_REQUESTS, ex);
+        return ResponseEntity.status(apiError.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(apiError);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Object> handleServiceOverloaded(ServiceOverloadedException ex) {
+        log.warn("rejecting request : {}", ex.getMessage());
+        LibraryApiError apiError = new LibraryApiError(HttpStatus.SERVICE_UNAVAILABLE, ex);
+        return ResponseEntity.status(apiError.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(apiError);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Object> handleBadRequest(IllegalArgumentException ex) {
         logException(ex);
@@ -0,0 +1,90 @@
+package com.digicert.libraryapi.controller.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds the requests in flight with a limit that follows observed latency (AIMD): every request that
+ * completes under the latency threshold while the limit is at least half used earns a credit, and the limit
+ * grows by one once it has earned as many credits as the limit, so by about one per round of requests
+ * rather than one per request. A slower or failed request multiplies it by the backoff ratio, at most once
+ * per threshold so one burst of slow responses counts once, and drops the credits earned so far.
+ * Admission and both adjustments are CAS loops.
+ */
+class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger credits = new AtomicInteger();
+    private final AtomicLong lastDecrease;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos,
+                               double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        this.lastDecrease = new AtomicLong(System.nanoTime() - latencyThresholdNanos);
+    }
+
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * releases a request without using it as a sample, for responses that outlive the request thread
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    void release(long latencyNanos, boolean failed, long nanoTime) {
+        int released = inFlight.getAndDecrement();
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            decrease(nanoTime);
+        } else if (released * 2 >= limit.get()) {
+            increase();
+        }
+    }
+
+    int limit() {
+        return limit.get();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * adds 1/limit to the limit, kept as whole credits so the fraction needs no floating point state
+     */
+    private void increase() {
+        int current = limit.get();
+        if (current >= maxLimit) {
+            return;
+        }
+        if (credits.updateAndGet(earned -> earned + 1 >= current ? 0 : earned + 1) == 0) {
+            limit.getAndUpdate(latest -> Math.min(maxLimit, latest + 1));
+        }
+    }
+
+    private void decrease(long nanoTime) {
+        long last = lastDecrease.get();
+        if (nanoTime - last < latencyThresholdNanos || !lastDecrease.compareAndSet(last, nanoTime)) {
+            return;
+        }
+        credits.set(0);
+        limit.getAndUpdate(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+    }
+}
@@ -0,0 +1,213 @@
+package com.digicert.libraryapi.controller.filter;
+
+import com.digicert.libraryapi.config.RateLimitProperties;
+import com.digicert.libraryapi.exception.RateLimitExceededException;
+import com.digicert.libraryapi.exception.ServiceOverloadedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Turns requests away before they reach the controller: first by the client's token bucket, where each
+ * request costs the tokens configured for its path so a listing spends more than a single book read,
+ * then by the {@link AdaptiveConcurrencyLimiter} shared by all clients. Rejections are resolved through
+ * the MVC exception resolvers, so RestExceptionHandler renders them as 429 and 503 like any other error.
+ * <p>
+ * Clients are told apart by their remote address; a header naming the client is only believed on requests
+ * from one of the configured trusted proxies, otherwise any caller could pick a fresh bucket per request.
+ * <p>
+ * The change feed only passes the token bucket: its streams are meant to stay open and would otherwise
+ * hold concurrency slots for their whole life.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String CHANGE_FEED = "/books/changes";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitProperties rateLimitProperties;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final Cache<String, TokenBucket> buckets;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final TrustedProxies trustedProxies;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private final Counter rateRejected;
+    private final Counter concurrencyRejected;
+
+    public RateLimitFilter(RateLimitProperties rateLimitProperties,
+                           HandlerExceptionResolver handlerExceptionResolver,
+                           MeterRegistry meterRegistry) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.trustedProxies = new TrustedProxies(rateLimitProperties.getTrustedProxies());
+        // an idle bucket is full again after burst / tokens-per-second, dropping it then loses nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.getMaxClients())
+                .expireAfterAccess(Duration.ofNanos((long) (NANOS_PER_SECOND
+                        * rateLimitProperties.getBurst() / rateLimitProperties.getTokensPerSecond())))
+                .build();
+        RateLimitProperties.Concurrency concurrency = rateLimitProperties.getConcurrency();
+        this.limiter = new AdaptiveConcurrencyLimiter(concurrency.getInitialLimit(),
+                concurrency.getMinLimit(),
+                concurrency.getMaxLimit(),
+                concurrency.getLatencyThreshold().toNanos(),
+                concurrency.getBackoffRatio());
+        this.rateRejected = rejected(meterRegistry, "rate");
+        this.concurrencyRejected = rejected(meterRegistry, "concurrency");
+        Gauge.builder("library.ratelimit.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("requests currently allowed in flight")
+                .register(meterRegistry);
+        Gauge.builder("library.ratelimit.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("requests in flight past the concurrency limiter")
+                .register(meterRegistry);
+        Gauge.builder("library.ratelimit.clients", buckets, Cache::estimatedSize)
+                .description("clients with a token bucket")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        String client = clientId(request);
+        int cost = cost(path);
+        long now = System.nanoTime();
+        long waitNanos = buckets.get(client, key -> new TokenBucket(rateLimitProperties.getBurst(),
+                rateLimitProperties.getTokensPerSecond(), now)).tryTake(cost, now);
+        if (waitNanos > 0) {
+            rateRejected.increment();
+            long retryAfter = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+            reject(request, response, new RateLimitExceededException(
+                    "rate limit exceeded for client " + client + ", retry in " + retryAfter + "s", retryAfter));
+            return;
+        }
+
+        if (CHANGE_FEED.equals(path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            concurrencyRejected.increment();
+            reject(request, response, new ServiceOverloadedException(
+                    "service overloaded, " + limiter.limit() + " requests already in flight"));
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // streamed responses last as long as the client reads, their latency says nothing of load
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+            } else {
+                limiter.release(System.nanoTime() - start, failed, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * The remote address, unless the request comes from a trusted proxy that names the client in
+     * client-id-header. A list such as X-Forwarded-For is read from the right: the last entry is the
+     * one the trusted proxy added, everything before it is whatever the client chose to send.
+     */
+    private String clientId(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String header = rateLimitProperties.getClientIdHeader();
+        if (!StringUtils.hasText(header) || !trustedProxies.contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        String client = request.getHeader(header);
+        if (!StringUtils.hasText(client)) {
+            return remoteAddr;
+        }
+        String last = client.substring(client.lastIndexOf(',') + 1).trim();
+        return last.isEmpty() ? remoteAddr : last;
+    }
+
+    private int cost(String path) {
+        for (Map.Entry<String, Integer> entry : rateLimitProperties.getCosts().entrySet()) {
+            if (pathMatcher.match(entry.getKey(), path)) {
+                return entry.getValue();
+            }
+        }
+        return 1;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RuntimeException ex)
+            throws IOException {
+        log.debug("rejecting {} {} : {}", request.getMethod(), request.getRequestURI(), ex.getMessage());
+        ModelAndView resolved = handlerExceptionResolver.resolveException(request, response, null, ex);
+        if (resolved == null) {
+            HttpStatus status = ex instanceof RateLimitExceededException
+                    ? HttpStatus.TOO_MANY_REQUESTS
+                    : HttpStatus.SERVICE_UNAVAILABLE;
+            response.sendError(status.value(), ex.getMessage());
+        }
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("library.ratelimit.rejected")
+                .description("requests turned away before reaching the controller")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * gives the slot back once, whichever way the asynchronous response ends
+     */
+    private final class ReleaseOnCompletion implements AsyncListener {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.digicert.libraryapi.controller.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One client's token bucket, kept as the single instant at which the bucket is full again (the generic
+ * cell rate algorithm). Taking tokens pushes that instant forward by their refill time, and is refused
+ * when it would end up more than a full bucket's refill time ahead of now. Each attempt is one CAS.
+ */
+class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int burst, double tokensPerSecond, long nanoTime) {
+        this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond);
+        this.burstNanos = nanosPerToken * burst;
+        this.fullAt = new AtomicLong(nanoTime);
+    }
+
+    /**
+     * @param tokens the request cost, a cost above the burst is charged as a full bucket
+     * @return 0 when the tokens were taken, otherwise the nanoseconds until they would be available
+     */
+    long tryTake(int tokens, long nanoTime) {
+        long cost = Math.min(nanosPerToken * tokens, burstNanos);
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - nanoTime > 0 ? current : nanoTime) + cost;
+            long excess = next - nanoTime - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.digicert.libraryapi.controller.filter;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+/**
+ * The proxies whose client header is believed, as CIDR blocks such as 10.0.0.0/8 or single addresses.
+ * Only IP literals are accepted, so neither the configuration nor a request address ever needs a DNS lookup.
+ */
+class TrustedProxies {
+    private final List<Block> blocks;
+
+    TrustedProxies(List<String> cidrs) {
+        this.blocks = cidrs.stream().map(TrustedProxies::parse).toList();
+    }
+
+    boolean contains(String address) {
+        if (blocks.isEmpty() || !StringUtils.hasText(address)) {
+            return false;
+        }
+        byte[] bytes;
+        try {
+            bytes = literal(address).getAddress();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (Block block : blocks) {
+            if (block.contains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Block parse(String cidr) {
+        Assert.hasText(cidr, "trusted proxy cannot be empty");
+        int slash = cidr.indexOf('/');
+        byte[] network = literal(slash < 0 ? cidr : cidr.substring(0, slash)).getAddress();
+        int prefix = network.length * 8;
+        if (slash >= 0) {
+            try {
+                prefix = Integer.parseInt(cidr.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid prefix length in trusted proxy " + cidr, e);
+            }
+        }
+        Assert.isTrue(prefix >= 0 && prefix <= network.length * 8, "invalid prefix length in trusted proxy " + cidr);
+        return new Block(network, prefix);
+    }
+
+    private static InetAddress literal(String address) {
+        String trimmed = address.trim();
+        Assert.isTrue(trimmed.indexOf(':') >= 0 || trimmed.chars().allMatch(c -> c == '.' || Character.isDigit(c)),
+                "not an IP address: " + address);
+        try {
+            return InetAddress.getByName(trimmed);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("not an IP address: " + address, e);
+        }
+    }
+
+    private record Block(byte[] network, int prefix) {
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int full = prefix / 8;
+            for (int i = 0; i < full; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int rest = prefix % 8;
+            if (rest == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - rest);
+            return (address[full] & mask) == (network[full] & mask);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.digicert.libraryapi.controller.request;
+
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookFilterRequest {
+    private String author;
+    private String titlePrefix;
+    /**
+     * inclusive lower bound on createdOn
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Date createdFrom;
+    /**
+     * exclusive upper bound on createdOn
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Date createdTo;
+    private Integer size;
+    /**
+     * nextCursor of the previous page, continues the filtered listing after it
+     */
+    private String cursor;
+}
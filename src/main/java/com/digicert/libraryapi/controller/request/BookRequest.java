@@ -1,12 +1,18 @@
 package com.digicert.libraryapi.controller.request;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.*;
 
 @Data
+@JsonPropertyOrder({"title", "author", "version"})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class BookRequest {
     private String title;
     private String author;
+    /**
+     * version the client last read; when set, an update against any other version is rejected
+     */
+    private Long version;
 }
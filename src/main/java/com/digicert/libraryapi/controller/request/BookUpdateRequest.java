@@ -0,0 +1,15 @@
+package com.digicert.libraryapi.controller.request;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.*;
+
+@Data
+@JsonPropertyOrder({"id", "title", "author"})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookUpdateRequest {
+    private Long id;
+    private String title;
+    private String author;
+}
@@ -0,0 +1,37 @@
+package com.digicert.libraryapi.controller.response;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchItemResult {
+    /**
+     * position of the item in the batch request
+     */
+    private int index;
+    private Long id;
+    private Status status;
+    private String message;
+
+    public static BatchItemResult success(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+
+    public static BatchItemResult failure(int index, Long id, Status status, String message) {
+        return new BatchItemResult(index, id, status, message);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Status {
+        CREATED(true),
+        UPDATED(true),
+        DELETED(true),
+        INVALID(false),
+        NOT_FOUND(false);
+
+        private final boolean success;
+    }
+}
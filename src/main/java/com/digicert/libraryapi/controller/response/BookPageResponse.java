@@ -0,0 +1,17 @@
+package com.digicert.libraryapi.controller.response;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@JsonPropertyOrder({"books", "nextCursor", "hasNext"})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookPageResponse {
+    private List<BookResponse> books;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -1,11 +1,13 @@
 package com.digicert.libraryapi.controller.response;
 
 import com.digicert.libraryapi.persistance.entity.Book;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.*;
 
 import java.util.Date;
 
 @Data
+@JsonPropertyOrder({"id", "title", "author", "createdOn", "version"})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -14,12 +16,14 @@ public class BookResponse {
     private String title;
     private String author;
     private Date createdOn;
+    private Long version;
 
     public static BookResponse buildResponse(Book book){
         return BookResponse.builder()
                 .id(book.getId())
                 .author(book.getAuthor())
                 .title(book.getTitle())
-                .createdOn(book.getCreatedOn()).build();
+                .createdOn(book.getCreatedOn())
+                .version(book.getVersion()).build();
     }
 }
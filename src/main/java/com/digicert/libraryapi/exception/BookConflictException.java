@@ -0,0 +1,13 @@
+package com.digicert.libraryapi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class BookConflictException extends RuntimeException {
+    private final String message;
+
+    public BookConflictException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
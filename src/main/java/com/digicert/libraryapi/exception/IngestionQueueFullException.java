@@ -0,0 +1,13 @@
+package com.digicert.libraryapi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class IngestionQueueFullException extends RuntimeException {
+    private final String message;
+
+    public IngestionQueueFullException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
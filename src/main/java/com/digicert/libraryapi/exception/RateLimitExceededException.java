@@ -0,0 +1,18 @@
+package com.digicert.libraryapi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+    private final String message;
+    /**
+     * whole seconds until the client's bucket holds enough tokens for the request
+     */
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.message = message;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.digicert.libraryapi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+    private final String message;
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
@@ -0,0 +1,31 @@
+package com.digicert.libraryapi.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters for the failures the book service reports to its callers.
+ */
+@Component
+public class BookMetrics {
+    private final Counter validationFailures;
+    private final Counter booksNotFound;
+
+    public BookMetrics(MeterRegistry meterRegistry) {
+        this.validationFailures = Counter.builder("library.book.validation.failures")
+                .description("book requests rejected by validation")
+                .register(meterRegistry);
+        this.booksNotFound = Counter.builder("library.book.not.found")
+                .description("lookups, updates and deletes of books that do not exist")
+                .register(meterRegistry);
+    }
+
+    public void validationFailed() {
+        validationFailures.increment();
+    }
+
+    public void bookNotFound() {
+        booksNotFound.increment();
+    }
+}
@@ -3,19 +3,34 @@ package com.digicert.libraryapi.persistance.entity;
 import lombok.*;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Date;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
 @Getter
 @Setter
 @Builder
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "BOOK")
+@Table(name = "BOOK", indexes = {
+        @Index(name = "IDX_BOOK_CREATED_ON_TITLE_ID", columnList = "CREATED_ON, TITLE, ID"),
+        @Index(name = "IDX_BOOK_AUTHOR_CREATED_ON", columnList = "AUTHOR, CREATED_ON"),
+        @Index(name = "IDX_BOOK_TITLE", columnList = "TITLE"),
+        @Index(name = "IDX_BOOK_LAST_MODIFIED", columnList = "LAST_MODIFIED")
+})
 public class Book {
+    /**
+     * ids handed out per BOOK_SEQ call, the sequence increments by the same amount
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "BOOK_ID_GENERATOR")
+    @SequenceGenerator(name = "BOOK_ID_GENERATOR", sequenceName = "BOOK_SEQ", allocationSize = ID_ALLOCATION_SIZE)
     @ToString.Exclude
     @Column(name = "ID")
     private Long id;
@@ -26,9 +41,21 @@ public class Book {
     @Column(name = "CREATED_ON")
     @Temporal(TemporalType.TIMESTAMP)
     private Date createdOn;
+    @Column(name = "LAST_MODIFIED")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastModified;
+    @Version
+    @Column(name = "VERSION")
+    private Long version;
 
     @PrePersist
     private void prePersist(){
         createdOn = new Date();
+        lastModified = createdOn;
+    }
+
+    @PreUpdate
+    private void preUpdate(){
+        lastModified = new Date();
     }
 }
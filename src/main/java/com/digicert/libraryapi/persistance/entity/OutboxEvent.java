@@ -0,0 +1,40 @@
+package com.digicert.libraryapi.persistance.entity;
+
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/**
+ * A book change waiting to be relayed to other systems, written in the same transaction as the change.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "OUTBOX")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "OUTBOX_ID_GENERATOR")
+    @SequenceGenerator(name = "OUTBOX_ID_GENERATOR", sequenceName = "OUTBOX_SEQ", allocationSize = 50)
+    @Column(name = "ID")
+    private Long id;
+    @Column(name = "BOOK_ID", nullable = false)
+    private Long bookId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "EVENT_TYPE", nullable = false, length = 16)
+    private BookChangedEvent.Type eventType;
+    /**
+     * the {@link BookChangedEvent} as json
+     */
+    @ToString.Exclude
+    @Column(name = "PAYLOAD", nullable = false, length = 4000)
+    private String payload;
+    @Column(name = "CREATED_ON", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdOn;
+}
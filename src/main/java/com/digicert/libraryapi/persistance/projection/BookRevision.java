@@ -0,0 +1,15 @@
+package com.digicert.libraryapi.persistance.projection;
+
+import lombok.Value;
+
+import java.util.Date;
+
+/**
+ * Version and modification time of a single book, enough to answer a conditional GET
+ * without loading the book itself.
+ */
+@Value
+public class BookRevision {
+    Long version;
+    Date lastModified;
+}
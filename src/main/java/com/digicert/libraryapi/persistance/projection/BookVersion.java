@@ -0,0 +1,13 @@
+package com.digicert.libraryapi.persistance.projection;
+
+import lombok.Value;
+
+/**
+ * Id and version of a book about to be deleted, so the deletion can be published with the
+ * last version the book had.
+ */
+@Value
+public class BookVersion {
+    Long id;
+    Long version;
+}
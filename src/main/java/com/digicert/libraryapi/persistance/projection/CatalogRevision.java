@@ -0,0 +1,14 @@
+package com.digicert.libraryapi.persistance.projection;
+
+import lombok.Value;
+
+import java.util.Date;
+
+/**
+ * Size and latest modification time of the catalog; any insert, update or delete changes one of them.
+ */
+@Value
+public class CatalogRevision {
+    Long count;
+    Date lastModified;
+}
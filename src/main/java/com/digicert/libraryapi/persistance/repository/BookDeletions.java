@@ -0,0 +1,20 @@
+package com.digicert.libraryapi.persistance.repository;
+
+import com.digicert.libraryapi.persistance.projection.BookVersion;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Deletes that report the rows they removed, so the delete paths can publish each book's last version
+ * without reading it first.
+ */
+public interface BookDeletions {
+
+    /**
+     * deletes the books with the given ids
+     *
+     * @return the id and last version of every book that was deleted, empty when none of them existed
+     */
+    List<BookVersion> deleteReturningVersions(Collection<Long> ids);
+}
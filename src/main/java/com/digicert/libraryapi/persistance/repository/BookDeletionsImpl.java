@@ -0,0 +1,86 @@
+package com.digicert.libraryapi.persistance.repository;
+
+import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.persistance.projection.BookVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.DB2Dialect;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MariaDBDialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * One statement per delete where the database hands back the deleted rows: a data change delta table on
+ * H2 and DB2, DELETE ... RETURNING on PostgreSQL and MariaDB. Other databases read the versions under a row
+ * lock first, so no update can land between the read and the delete, at the price of a second round trip.
+ */
+class BookDeletionsImpl implements BookDeletions {
+    private static final String DELETE_FROM_OLD_TABLE =
+            "select ID, VERSION from OLD TABLE (delete from BOOK where ID in (:ids))";
+    private static final String DELETE_RETURNING = "delete from BOOK where ID in (:ids) returning ID, VERSION";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * the single-statement delete for this database, null when it has none
+     */
+    private String deleteReturning;
+
+    @PostConstruct
+    void resolveDialect() {
+        Dialect dialect = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        if (dialect instanceof H2Dialect || dialect instanceof DB2Dialect) {
+            deleteReturning = DELETE_FROM_OLD_TABLE;
+        } else if (dialect instanceof PostgreSQLDialect || dialect instanceof MariaDBDialect) {
+            deleteReturning = DELETE_RETURNING;
+        }
+    }
+
+    @Override
+    public List<BookVersion> deleteReturningVersions(Collection<Long> ids) {
+        if (deleteReturning == null) {
+            return lockThenDelete(ids);
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(deleteReturning)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Book.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        List<BookVersion> deleted = rows.stream()
+                .map(row -> new BookVersion(((Number) row[0]).longValue(), ((Number) row[1]).longValue()))
+                .toList();
+        // the statement runs as a query, so Hibernate does not evict the deleted books from the second-level cache
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        deleted.forEach(book -> cache.evict(Book.class, book.getId()));
+        return deleted;
+    }
+
+    List<BookVersion> lockThenDelete(Collection<Long> ids) {
+        List<BookVersion> deleted = entityManager.createQuery(
+                        "select new com.digicert.libraryapi.persistance.projection.BookVersion(b.id, b.version) " +
+                                "from Book b where b.id in :ids", BookVersion.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (!deleted.isEmpty()) {
+            entityManager.createQuery("delete from Book b where b.id in :ids")
+                    .setParameter("ids", deleted.stream().map(BookVersion::getId).toList())
+                    .executeUpdate();
+        }
+        return deleted;
+    }
+}
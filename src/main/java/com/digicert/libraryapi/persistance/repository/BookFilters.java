@@ -0,0 +1,19 @@
+package com.digicert.libraryapi.persistance.repository;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.persistance.entity.Book;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Filtered listings selected straight into the response, like the fixed queries of {@link BookRepository}.
+ */
+public interface BookFilters {
+
+    /**
+     * @return at most limit books matching the specification, in the given order
+     */
+    List<BookResponse> findResponsesBy(Specification<Book> specification, Sort sort, int limit);
+}
@@ -0,0 +1,42 @@
+package com.digicert.libraryapi.persistance.repository;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.persistance.entity.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * A Criteria query with a constructor select: the specification's predicates over Book, but no managed
+ * entity is loaded, the same as {@link BookRepository#SELECT_RESPONSE}.
+ */
+class BookFiltersImpl implements BookFilters {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookResponse> findResponsesBy(Specification<Book> specification, Sort sort, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookResponse> query = builder.createQuery(BookResponse.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(builder.construct(BookResponse.class,
+                book.get("id"), book.get("title"), book.get("author"), book.get("createdOn"), book.get("version")));
+        Predicate predicate = specification.toPredicate(book, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, book, builder));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,9 +1,77 @@
 package com.digicert.libraryapi.persistance.repository;
 
+import com.digicert.libraryapi.controller.response.BookResponse;
 import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.persistance.projection.BookRevision;
+import com.digicert.libraryapi.persistance.projection.CatalogRevision;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface BookRepository extends CrudRepository<Book, Long> {
+public interface BookRepository extends CrudRepository<Book, Long>, BookFilters, BookDeletions {
+
+    /**
+     * read paths select straight into the response: no managed entity, no dirty-checking snapshot
+     * and no second copy through {@link BookResponse#buildResponse(Book)}
+     */
+    String SELECT_RESPONSE = "select new com.digicert.libraryapi.controller.response.BookResponse(" +
+            "b.id, b.title, b.author, b.createdOn, b.version) from Book b ";
+    String LISTING_ORDER = "order by b.createdOn desc, b.title desc, b.id desc";
+
+    @Query(SELECT_RESPONSE + "where b.id = :id")
+    Optional<BookResponse> findResponseById(@Param("id") Long id);
+
+    @Query(SELECT_RESPONSE + "where b.id in :ids")
+    List<BookResponse> findResponsesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * the first books in listing order, as many as the pageable asks for
+     */
+    @Query(SELECT_RESPONSE + LISTING_ORDER)
+    List<BookResponse> findResponses(Pageable pageable);
+
+    /**
+     * keyset (seek) query: the books that sort strictly after the given (createdOn, title, id) key,
+     * in the same order as {@link #findResponses(Pageable)}. The leading createdOn bound is redundant
+     * with the OR that follows, but it is the part planners can start an index range scan from, so a
+     * page costs its own rows rather than a walk down from the top of the index.
+     */
+    @Query(SELECT_RESPONSE +
+            "where b.createdOn <= :createdOn " +
+            "and (b.createdOn < :createdOn " +
+            "or (b.createdOn = :createdOn and (b.title < :title or (b.title = :title and b.id < :id)))) " +
+            LISTING_ORDER)
+    List<BookResponse> findResponsesAfter(@Param("createdOn") Date createdOn,
+                                          @Param("title") String title,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    @Query("select new com.digicert.libraryapi.persistance.projection.BookRevision(b.version, b.lastModified) " +
+            "from Book b where b.id = :id")
+    Optional<BookRevision> findRevisionById(@Param("id") Long id);
+
+    /**
+     * the /books/all validators, a count and a max over the indexed LAST_MODIFIED column; also read by the
+     * periodic reconcile of the in-memory book count
+     */
+    @Query("select new com.digicert.libraryapi.persistance.projection.CatalogRevision(count(b), max(b.lastModified)) " +
+            "from Book b")
+    CatalogRevision findCatalogRevision();
+
+    /**
+     * derived exists query, run as a select of the id limited to one row rather than a count
+     * or an entity load
+     */
+    boolean existsBookById(Long id);
+
+    @Query("select b.id from Book b where b.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
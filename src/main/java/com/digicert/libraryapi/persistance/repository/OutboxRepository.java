@@ -0,0 +1,34 @@
+package com.digicert.libraryapi.persistance.repository;
+
+import com.digicert.libraryapi.persistance.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends CrudRepository<OutboxEvent, Long> {
+
+    /**
+     * the oldest events, locked for the calling transaction; a lock timeout of -2 is Hibernate's
+     * SKIP LOCKED, so a second relay instance claims the next rows instead of waiting for these
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("select o from OutboxEvent o order by o.id")
+    List<OutboxEvent> claimBatch(Pageable pageable);
+
+    @Modifying
+    @Query("delete from OutboxEvent o where o.id in :ids")
+    int deleteAllWithIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,76 @@
+package com.digicert.libraryapi.persistance.repository;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Non-blocking reads of the BOOK table over R2DBC, mapped straight to responses. Writes stay on JPA
+ * so ids, versions and timestamps keep coming from the entity lifecycle.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveBookRepository {
+    private static final String SELECT_BOOK = "SELECT ID, TITLE, AUTHOR, CREATED_ON, VERSION FROM BOOK";
+    private static final String LISTING_ORDER = " ORDER BY CREATED_ON DESC, TITLE DESC, ID DESC";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveBookRepository(ConnectionFactory connectionFactory) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    public Mono<BookResponse> findById(Long id) {
+        return databaseClient.sql(SELECT_BOOK + " WHERE ID = :id")
+                .bind("id", id)
+                .map(ReactiveBookRepository::toResponse)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("SELECT 1 FROM BOOK WHERE ID = :id LIMIT 1")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * the most recent books in listing order, at most limit of them
+     */
+    public Flux<BookResponse> findAll(int limit) {
+        return databaseClient.sql(SELECT_BOOK + LISTING_ORDER + " LIMIT :limit")
+                .bind("limit", limit)
+                .map(ReactiveBookRepository::toResponse)
+                .all();
+    }
+
+    /**
+     * the whole catalog in listing order; rows are pulled from the driver as the subscriber requests them
+     */
+    public Flux<BookResponse> streamAll() {
+        return databaseClient.sql(SELECT_BOOK + LISTING_ORDER)
+                .map(ReactiveBookRepository::toResponse)
+                .all();
+    }
+
+    private static BookResponse toResponse(Readable row) {
+        LocalDateTime createdOn = row.get("CREATED_ON", LocalDateTime.class);
+        return BookResponse.builder()
+                .id(row.get("ID", Long.class))
+                .title(row.get("TITLE", String.class))
+                .author(row.get("AUTHOR", String.class))
+                .createdOn(createdOn == null ? null : Date.from(createdOn.atZone(ZoneId.systemDefault()).toInstant()))
+                .version(row.get("VERSION", Long.class))
+                .build();
+    }
+}
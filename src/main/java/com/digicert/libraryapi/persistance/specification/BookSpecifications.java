@@ -0,0 +1,57 @@
+package com.digicert.libraryapi.persistance.specification;
+
+import com.digicert.libraryapi.persistance.entity.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Date;
+
+/**
+ * Filters for the book listing. Each one is a sargable predicate on an indexed column,
+ * see the indexes declared on {@link Book}.
+ */
+public final class BookSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> authorEquals(String author) {
+        return (root, query, builder) -> builder.equal(root.get("author"), author);
+    }
+
+    public static Specification<Book> titleStartsWith(String prefix) {
+        return (root, query, builder) -> builder.like(root.get("title"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<Book> createdOnOrAfter(Date from) {
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("createdOn"), from);
+    }
+
+    public static Specification<Book> createdBefore(Date to) {
+        return (root, query, builder) -> builder.lessThan(root.get("createdOn"), to);
+    }
+
+    /**
+     * the keyset seek of {@code BookRepository.findResponsesAfter}: books sorting strictly after the given
+     * (createdOn, title, id) key in listing order, with the same sargable leading bound on createdOn
+     */
+    public static Specification<Book> listedAfter(Date createdOn, String title, Long id) {
+        return (root, query, builder) -> builder.and(
+                builder.lessThanOrEqualTo(root.get("createdOn"), createdOn),
+                builder.or(
+                        builder.lessThan(root.get("createdOn"), createdOn),
+                        builder.and(
+                                builder.equal(root.get("createdOn"), createdOn),
+                                builder.or(
+                                        builder.lessThan(root.get("title"), title),
+                                        builder.and(
+                                                builder.equal(root.get("title"), title),
+                                                builder.lessThan(root.get("id"), id))))));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -1,10 +1,18 @@
 package com.digicert.libraryapi.service;
 
+import com.digicert.libraryapi.controller.request.BookFilterRequest;
 import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.request.BookUpdateRequest;
+import com.digicert.libraryapi.controller.response.BatchResponse;
+import com.digicert.libraryapi.controller.response.BookPageResponse;
 import com.digicert.libraryapi.controller.response.BookResponse;
 import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.persistance.projection.BookRevision;
+import com.digicert.libraryapi.persistance.projection.CatalogRevision;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface BookService {
 
@@ -12,12 +20,71 @@ public interface BookService {
 
     BookResponse update(BookRequest bookRequest, Long id);
 
+    BatchResponse saveAll(List<BookRequest> bookRequests);
+
+    BatchResponse updateAll(List<BookUpdateRequest> bookUpdateRequests);
+
+    BatchResponse deleteAll(List<Long> ids);
+
     BookResponse findById(Long id);
 
     boolean existsById(Long id);
 
+    /**
+     * the books that exist among the given ids, in request order; unknown ids are left out
+     */
+    List<BookResponse> findAllById(List<Long> ids);
+
+    /**
+     * the subset of the given ids that exist
+     */
+    Set<Long> findExistingIds(List<Long> ids);
+
+    /**
+     * version and modification time of a book, without loading it
+     */
+    BookRevision findRevision(Long id);
+
+    /**
+     * loads a book from the database and replaces its cache entry, for when the entry is known to lag
+     */
+    BookResponse refreshById(Long id);
+
+    /**
+     * size and latest write time of the whole catalog, read from the database so every instance derives the
+     * same validators from it
+     */
+    CatalogRevision findCatalogRevision();
+
     List<BookResponse> findAll();
 
+    /**
+     * hands the books {@link #findAll()} would return to the consumer one at a time, in listing order
+     *
+     * @return the number of books handed over
+     */
+    long findAll(Consumer<BookResponse> consumer);
+
+    BookPageResponse findPage(String cursor, Integer size);
+
+    /**
+     * hands every book in the library to the consumer one at a time, without holding the catalog in memory
+     *
+     * @return the number of books exported
+     */
+    long exportAll(Consumer<BookResponse> consumer);
+
+    /**
+     * a page of the books matching every filter that is set, in listing order, continuing after the
+     * filter's cursor; no count of the matching books is run
+     */
+    BookPageResponse filter(BookFilterRequest filter);
+
+    /**
+     * full-text search over title and author, the last query term also matches as a prefix
+     */
+    List<BookResponse> search(String query, Integer limit);
+
     long count();
 
     void deleteById(Long id);
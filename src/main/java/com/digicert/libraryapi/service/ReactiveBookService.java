@@ -0,0 +1,55 @@
+package com.digicert.libraryapi.service;
+
+import com.digicert.libraryapi.controller.request.BookFilterRequest;
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.request.BookUpdateRequest;
+import com.digicert.libraryapi.controller.response.BatchResponse;
+import com.digicert.libraryapi.controller.response.BookPageResponse;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link BookService} for the reactive stack: the same operations and failures, delivered as
+ * publishers that never block the calling thread.
+ */
+public interface ReactiveBookService {
+
+    Mono<BookResponse> save(BookRequest book);
+
+    Mono<BookResponse> update(BookRequest bookRequest, Long id);
+
+    Mono<BatchResponse> saveAll(List<BookRequest> bookRequests);
+
+    Mono<BatchResponse> updateAll(List<BookUpdateRequest> bookUpdateRequests);
+
+    Mono<BatchResponse> deleteAll(List<Long> ids);
+
+    Mono<BookResponse> findById(Long id);
+
+    Mono<Boolean> existsById(Long id);
+
+    Flux<BookResponse> findAllById(List<Long> ids);
+
+    Mono<Set<Long>> findExistingIds(List<Long> ids);
+
+    Flux<BookResponse> findAll();
+
+    Mono<BookPageResponse> findPage(String cursor, Integer size);
+
+    /**
+     * every book in the library, emitted no faster than the subscriber requests them
+     */
+    Flux<BookResponse> exportAll();
+
+    Mono<BookPageResponse> filter(BookFilterRequest filter);
+
+    Flux<BookResponse> search(String query, Integer limit);
+
+    Mono<Long> count();
+
+    Mono<Void> deleteById(Long id);
+}
@@ -0,0 +1,338 @@
+package com.digicert.libraryapi.service.event;
+
+import com.digicert.libraryapi.config.EventProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans committed {@link BookChangedEvent}s out to server-sent event subscribers. Every event gets the
+ * next id of a monotonic sequence and is kept in a fixed-size history, so a client reconnecting with
+ * Last-Event-ID receives what it missed; a client further behind than the history gets a reset event
+ * and reloads the catalog. Ids carry the epoch of this instance ({@code <epoch>-<sequence>}), so an id
+ * from before a restart or from another instance is recognised and answered with a reset rather than
+ * with whatever this sequence happens to hold under the same number.
+ * <p>
+ * A committing writer only numbers the event and records it in the history, under a lock held for
+ * exactly that; a dedicated dispatcher thread then offers it to every subscriber, so a write costs the
+ * same with one subscriber or thousands. Publishing never waits on a client: each subscriber has its own
+ * bounded buffer, drained by a virtual thread only while there is something to send, and a subscriber
+ * whose buffer is full is disconnected so it can resume from the history. An idle subscriber costs its
+ * emitter and an empty queue.
+ */
+@Slf4j
+@Component
+public class BookChangeBroadcaster {
+    private static final Outbound HEARTBEAT = new Outbound(0, null, null);
+    private static final char EPOCH_SEPARATOR = '-';
+
+    private final EventProperties eventProperties;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    // history slots and sequence are written under the lock; sequence is volatile so the dispatcher reads
+    // both without it, a slot overwritten before it was dispatched is recognised by its id
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Outbound[] history;
+    private volatile long sequence;
+    // dispatched only moves under the dispatch lock, which subscribe takes to replay and register in one step
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private volatile long dispatched;
+    private volatile boolean running;
+    private volatile Thread dispatcher;
+    private final Counter published;
+    private final Counter overflowed;
+
+    public BookChangeBroadcaster(EventProperties eventProperties, MeterRegistry meterRegistry) {
+        this.eventProperties = eventProperties;
+        this.history = new Outbound[eventProperties.getHistorySize()];
+        Gauge.builder("library.events.subscribers", subscribers, Set::size)
+                .description("open book change streams")
+                .register(meterRegistry);
+        this.published = Counter.builder("library.events.published")
+                .description("book change events published to subscribers")
+                .register(meterRegistry);
+        this.overflowed = Counter.builder("library.events.overflowed")
+                .description("subscribers disconnected because they fell behind")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "book-change-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * called after the writing transaction commits, or straight away for writes outside a transaction,
+     * so rolled back changes are never announced
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.lock();
+        try {
+            long id = sequence + 1;
+            history[(int) (id % history.length)] = new Outbound(id, event.getType().name().toLowerCase(Locale.ROOT), event);
+            sequence = id;
+        } finally {
+            lock.unlock();
+        }
+        LockSupport.unpark(dispatcher);
+        published.increment();
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(eventProperties.getStreamTimeout().toMillis()));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        dispatchLock.lock();
+        try {
+            // replay up to what was dispatched and register before the dispatcher moves on, so no event is
+            // missed or sent twice
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            dispatchLock.unlock();
+        }
+        log.debug("change stream opened, last event id: {}, subscribers: {}", lastEventId, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * keeps idle streams open through proxies and finds clients that went away without closing
+     */
+    @Scheduled(fixedDelayString = "${library.events.heartbeat-interval:PT15S}",
+            initialDelayString = "${library.events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    String epoch() {
+        return epoch;
+    }
+
+    long dispatched() {
+        return dispatched;
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        subscribers.forEach(Subscriber::close);
+        senders.shutdown();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            if (dispatched == sequence) {
+                LockSupport.parkNanos(this, TimeUnit.SECONDS.toNanos(1));
+            }
+            try {
+                while (dispatchNext()) {
+                    // one event per lock hold, a subscribe never waits behind a whole backlog
+                }
+            } catch (RuntimeException e) {
+                log.error("book change dispatcher failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * @return false when every recorded event has been offered to the subscribers
+     */
+    private boolean dispatchNext() {
+        dispatchLock.lock();
+        try {
+            long id = dispatched + 1;
+            if (id > sequence) {
+                return false;
+            }
+            Outbound outbound = history[(int) (id % history.length)];
+            if (outbound == null || outbound.id() != id) {
+                // writers lapped the dispatcher; everyone resumes from the history and gets a reset if needed
+                log.warn("book change dispatcher fell more than {} events behind, disconnecting {} subscribers",
+                        history.length, subscribers.size());
+                subscribers.forEach(Subscriber::close);
+                dispatched = sequence;
+                return false;
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(outbound);
+            }
+            dispatched = id;
+            return true;
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * called under the dispatch lock
+     */
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long upTo = dispatched;
+        long last = sequenceOf(lastEventId);
+        List<Outbound> events = new ArrayList<>();
+        lock.lock();
+        try {
+            long oldest = Math.max(1, sequence - history.length + 1);
+            long from = last + 1;
+            if (last < 0 || last > upTo || from < oldest) {
+                // another instance, a restart, or a client past the history: it has to reload what it holds
+                events.add(new Outbound(oldest - 1, "reset", "history not available after event " + lastEventId));
+                from = oldest;
+            }
+            for (long id = from; id <= upTo; id++) {
+                events.add(history[(int) (id % history.length)]);
+            }
+        } finally {
+            lock.unlock();
+        }
+        events.forEach(subscriber::enqueue);
+    }
+
+    /**
+     * @return the sequence number of an id issued by this instance, -1 for any other id
+     */
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf(EPOCH_SEPARATOR);
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Math.max(-1, Long.parseLong(eventId.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Outbound(long id, String name, Object data) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Outbound> backlog = new ConcurrentLinkedQueue<>();
+        private final Queue<Outbound> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * queues a live event, a subscriber with a full buffer is disconnected instead of waited for
+         */
+        void offer(Outbound outbound) {
+            if (closed) {
+                return;
+            }
+            if (depth.incrementAndGet() > eventProperties.getSubscriberBufferSize()) {
+                depth.decrementAndGet();
+                overflowed.increment();
+                log.info("change stream disconnected, subscriber fell more than {} events behind",
+                        eventProperties.getSubscriberBufferSize());
+                close();
+                return;
+            }
+            queue.offer(outbound);
+            schedule();
+        }
+
+        /**
+         * queues a replayed event ahead of the live ones, the replay is not bounded by the buffer size
+         */
+        void enqueue(Outbound outbound) {
+            backlog.offer(outbound);
+            schedule();
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            // the emitter is locked while a send is in flight, completing it must not hold up the publisher
+            senders.execute(emitter::complete);
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Outbound outbound;
+                while (!closed && (outbound = backlog.poll()) != null) {
+                    send(outbound);
+                }
+                while (!closed && (outbound = queue.poll()) != null) {
+                    depth.decrementAndGet();
+                    send(outbound);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("change stream closed while sending: {}", e.getMessage());
+                closed = true;
+                subscribers.remove(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // an event offered after the last poll but before the flag was cleared still needs a sender
+            if (!closed && !(backlog.isEmpty() && queue.isEmpty())) {
+                schedule();
+            }
+        }
+
+        private void send(Outbound outbound) throws IOException {
+            if (outbound == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(epoch + EPOCH_SEPARATOR + outbound.id())
+                    .name(outbound.name())
+                    .data(outbound.data()));
+        }
+    }
+}
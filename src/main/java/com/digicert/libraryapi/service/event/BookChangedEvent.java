@@ -0,0 +1,40 @@
+package com.digicert.libraryapi.service.event;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import lombok.Value;
+
+/**
+ * A book was created, updated or deleted. Published by the write paths of the book service and
+ * fanned out to subscribers by {@link BookChangeBroadcaster} once the change has committed.
+ */
+@Value
+public class BookChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    Type type;
+    Long bookId;
+    /**
+     * the version written, or the last version the book had for deletions; events for one book can
+     * arrive out of order, a consumer keeps the highest version it has seen
+     */
+    Long version;
+    /**
+     * the book as written, null for deletions
+     */
+    BookResponse book;
+
+    public static BookChangedEvent created(BookResponse book) {
+        return new BookChangedEvent(Type.CREATED, book.getId(), book.getVersion(), book);
+    }
+
+    public static BookChangedEvent updated(BookResponse book) {
+        return new BookChangedEvent(Type.UPDATED, book.getId(), book.getVersion(), book);
+    }
+
+    public static BookChangedEvent deleted(Long bookId, Long version) {
+        return new BookChangedEvent(Type.DELETED, bookId, version, null);
+    }
+}
@@ -0,0 +1,122 @@
+package com.digicert.libraryapi.service.impl;
+
+import com.digicert.libraryapi.persistance.projection.CatalogRevision;
+import com.digicert.libraryapi.persistance.repository.BookRepository;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory book count that follows the {@link BookChangedEvent}s of the write paths. A transaction's
+ * creates and deletes are summed while it runs and applied once it commits, so a rollback never moves the count.
+ * It is seeded from the database at startup and periodically reconciled with it, so
+ * drift from out-of-band writes or other instances only lasts one interval.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookCounter {
+
+    private final BookRepository bookRepository;
+    private final LongAdder count = new LongAdder();
+    /**
+     * transactions that changed the count and have not completed yet
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /**
+     * bumped after every applied change, so reconcile can tell that one landed while it was reading
+     */
+    private final AtomicLong applied = new AtomicLong();
+
+    @PostConstruct
+    void seed() {
+        reconcile();
+    }
+
+    /**
+     * Only runs between writes: a write that has committed but not yet been applied would be in the database
+     * count and missing from ours, and correcting for it would count it twice once it is applied. A reconcile
+     * that overlaps a write is skipped and the next interval tries again.
+     */
+    @Scheduled(fixedDelayString = "${library.books.count-reconcile-interval:PT1M}",
+            initialDelayString = "${library.books.count-reconcile-interval:PT1M}")
+    public void reconcile() {
+        long appliedBefore = applied.get();
+        if (inFlight.get() > 0) {
+            log.debug("book count reconcile skipped, writes in flight");
+            return;
+        }
+        long sum = count.sum();
+        CatalogRevision revision = bookRepository.findCatalogRevision();
+        if (inFlight.get() > 0 || applied.get() != appliedBefore) {
+            log.debug("book count reconcile skipped, the count changed while the database was read");
+            return;
+        }
+        long drift = revision.getCount() - sum;
+        if (drift != 0) {
+            count.add(drift);
+            log.info("book count reconciled with the database, drift: {}", drift);
+        }
+    }
+
+    /**
+     * sums the change into the publishing transaction's delta, applied after it commits; a change published
+     * outside a transaction is applied at once
+     */
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        long delta = switch (event.getType()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+        if (delta == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(delta);
+            return;
+        }
+        PendingDelta pending = (PendingDelta) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDelta();
+            inFlight.incrementAndGet();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.delta += delta;
+    }
+
+    public long get() {
+        return count.sum();
+    }
+
+    private void apply(long delta) {
+        count.add(delta);
+        applied.incrementAndGet();
+    }
+
+    private final class PendingDelta implements TransactionSynchronization {
+        private long delta;
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BookCounter.this);
+            if (status == STATUS_COMMITTED) {
+                apply(delta);
+            }
+            // applied first, so a reconcile that sees no write in flight already sees this one's count
+            inFlight.decrementAndGet();
+        }
+    }
+}
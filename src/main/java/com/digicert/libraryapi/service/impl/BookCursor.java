@@ -0,0 +1,43 @@
+package com.digicert.libraryapi.service.impl;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Opaque keyset cursor on (createdOn, title, id), the sort key of the book listing.
+ * The title goes last in the encoded form so it may contain the separator.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class BookCursor {
+    private static final String SEPARATOR = ":";
+
+    private final Date createdOn;
+    private final String title;
+    private final Long id;
+
+    static BookCursor of(BookResponse book) {
+        return new BookCursor(book.getCreatedOn(), book.getTitle(), book.getId());
+    }
+
+    String encode() {
+        String raw = createdOn.getTime() + SEPARATOR + id + SEPARATOR + title;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+    }
+
+    static BookCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), UTF_8).split(SEPARATOR, 3);
+            return new BookCursor(new Date(Long.parseLong(parts[0])), parts[2], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor, e);
+        }
+    }
+}
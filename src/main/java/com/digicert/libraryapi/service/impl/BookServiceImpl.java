@@ -1,35 +1,74 @@
 package com.digicert.libraryapi.service.impl;
 
+import com.digicert.libraryapi.config.BookProperties;
+import com.digicert.libraryapi.controller.request.BookFilterRequest;
 import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.request.BookUpdateRequest;
+import com.digicert.libraryapi.controller.response.BatchItemResult;
+import com.digicert.libraryapi.controller.response.BatchItemResult.Status;
+import com.digicert.libraryapi.controller.response.BatchResponse;
+import com.digicert.libraryapi.controller.response.BookPageResponse;
 import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.exception.BookConflictException;
 import com.digicert.libraryapi.exception.BookNotFoundException;
+import com.digicert.libraryapi.metrics.BookMetrics;
 import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.persistance.projection.BookRevision;
+import com.digicert.libraryapi.persistance.projection.BookVersion;
+import com.digicert.libraryapi.persistance.projection.CatalogRevision;
 import com.digicert.libraryapi.persistance.repository.BookRepository;
 import com.digicert.libraryapi.service.BookService;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import com.digicert.libraryapi.service.search.BookSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
-import java.util.Comparator;
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static com.digicert.libraryapi.config.CacheConfig.BOOKS;
+import static com.digicert.libraryapi.config.CacheConfig.BOOK_EXISTS;
 import static com.digicert.libraryapi.controller.response.BookResponse.buildResponse;
-import static java.util.stream.StreamSupport.stream;
+import static com.digicert.libraryapi.persistance.specification.BookSpecifications.*;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "library.book.service", description = "time spent in BookService operations", histogram = true)
 public class BookServiceImpl implements BookService {
 
+    private static final Sort LISTING_ORDER = Sort.by(Sort.Direction.DESC, "createdOn", "title", "id");
+
     private final BookRepository bookRepository;
+    private final BookProperties bookProperties;
+    private final EntityManager entityManager;
+    private final BookCounter bookCounter;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookMetrics bookMetrics;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
+    @Caching(put = @CachePut(cacheNames = BOOKS, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = BOOK_EXISTS, key = "#result.id"))
     public BookResponse save(BookRequest bookRequest) {
-        log.info("bookService.save entered with request : {} ", bookRequest);
+        log.info("bookService.save entered");
+        log.debug("save request: {}", bookRequest);
         validateRequest(bookRequest);
         Book buildBook = Book.builder()
                 .author(bookRequest.getAuthor())
@@ -37,85 +76,457 @@ public class BookServiceImpl implements BookService {
                 .createdOn(new Date())
                 .build();
         BookResponse bookResponse = buildResponse(bookRepository.save(buildBook));
-        log.info("save success response: {}", bookResponse);
+        eventPublisher.publishEvent(BookChangedEvent.created(bookResponse));
+        log.info("save success, id: {}", bookResponse.getId());
+        log.debug("save success response: {}", bookResponse);
         return bookResponse;
     }
 
     @Override
+    @Transactional
+    @CachePut(cacheNames = BOOKS, key = "#id")
     public BookResponse update(BookRequest bookRequest, Long id) {
-        log.info("bookService.update entered with request : {} and id:{}", bookRequest, id);
+        log.info("bookService.update entered with id:{}", id);
+        log.debug("update request: {}", bookRequest);
         validateRequest(bookRequest);
-        
-        // Check if book exists and get its creation date
-        Book existingBook = bookRepository.findById(id)
-                .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + id));
 
-        Book buildBook = Book.builder()
-                .id(id)
-                .author(bookRequest.getAuthor())
-                .title(bookRequest.getTitle())
-                .createdOn(existingBook.getCreatedOn()) // Preserve the original creation date
-                .build();
-        BookResponse bookResponse = buildResponse(bookRepository.save(buildBook));
-        log.info("update success response: {}", bookResponse);
+        // one read of the managed entity, dirty checking turns the changes into a single versioned UPDATE
+        Book book = bookRepository.findById(id)
+                .orElseThrow(() -> bookNotFound("Book not found with id: " + id));
+        if (bookRequest.getVersion() != null && !bookRequest.getVersion().equals(book.getVersion())) {
+            throw new BookConflictException("Book with id: " + id + " is at version " + book.getVersion()
+                    + ", update was based on version " + bookRequest.getVersion());
+        }
+        book.setAuthor(bookRequest.getAuthor());
+        book.setTitle(bookRequest.getTitle());
+        // flush inside the method so a concurrent modification fails here and the response carries the new version
+        entityManager.flush();
+
+        BookResponse bookResponse = buildResponse(book);
+        eventPublisher.publishEvent(BookChangedEvent.updated(bookResponse));
+        log.info("update success, id: {}", bookResponse.getId());
+        log.debug("update success response: {}", bookResponse);
         return bookResponse;
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = BOOK_EXISTS, allEntries = true)
+    public BatchResponse saveAll(List<BookRequest> bookRequests) {
+        log.info("bookService.saveAll entered with {} requests", bookRequests == null ? 0 : bookRequests.size());
+        validateBatch(bookRequests);
+        BatchItemResult[] results = new BatchItemResult[bookRequests.size()];
+        List<Book> books = new ArrayList<>(bookRequests.size());
+        List<Integer> indexes = new ArrayList<>(bookRequests.size());
+        for (int i = 0; i < bookRequests.size(); i++) {
+            BookRequest bookRequest = bookRequests.get(i);
+            try {
+                validateRequest(bookRequest);
+            } catch (IllegalArgumentException e) {
+                results[i] = BatchItemResult.failure(i, null, Status.INVALID, e.getMessage());
+                continue;
+            }
+            books.add(Book.builder()
+                    .author(bookRequest.getAuthor())
+                    .title(bookRequest.getTitle())
+                    .createdOn(new Date())
+                    .build());
+            indexes.add(i);
+        }
+
+        // ids come from the pooled sequence, the inserts themselves are JDBC-batched at flush
+        Iterator<Book> saved = bookRepository.saveAll(books).iterator();
+        for (Integer index : indexes) {
+            Book book = saved.next();
+            eventPublisher.publishEvent(BookChangedEvent.created(buildResponse(book)));
+            results[index] = BatchItemResult.success(index, book.getId(), Status.CREATED);
+        }
+        BatchResponse batchResponse = BatchResponse.of(Arrays.asList(results));
+        log.info("saveAll completed, succeeded: {}, failed: {}", batchResponse.getSucceeded(), batchResponse.getFailed());
+        return batchResponse;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = BOOKS, allEntries = true)
+    public BatchResponse updateAll(List<BookUpdateRequest> bookUpdateRequests) {
+        log.info("bookService.updateAll entered with {} requests",
+                bookUpdateRequests == null ? 0 : bookUpdateRequests.size());
+        validateBatch(bookUpdateRequests);
+        BatchItemResult[] results = new BatchItemResult[bookUpdateRequests.size()];
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < bookUpdateRequests.size(); i++) {
+            BookUpdateRequest bookUpdateRequest = bookUpdateRequests.get(i);
+            try {
+                validateRequest(bookUpdateRequest);
+                Assert.isTrue(ids.add(bookUpdateRequest.getId()),
+                        "id " + bookUpdateRequest.getId() + " appears more than once in the batch");
+            } catch (IllegalArgumentException e) {
+                results[i] = BatchItemResult.failure(i, bookUpdateRequest == null ? null : bookUpdateRequest.getId(),
+                        Status.INVALID, e.getMessage());
+            }
+        }
+
+        // one select for the whole batch, the updates are flushed by dirty checking as one JDBC batch
+        Map<Long, Book> books = new HashMap<>();
+        bookRepository.findAllById(ids).forEach(book -> books.put(book.getId(), book));
+        List<Book> updated = new ArrayList<>(books.size());
+        for (int i = 0; i < bookUpdateRequests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            BookUpdateRequest bookUpdateRequest = bookUpdateRequests.get(i);
+            Book book = books.get(bookUpdateRequest.getId());
+            if (book == null) {
+                bookMetrics.bookNotFound();
+                results[i] = BatchItemResult.failure(i, bookUpdateRequest.getId(), Status.NOT_FOUND,
+                        "Book not found with id: " + bookUpdateRequest.getId());
+                continue;
+            }
+            book.setAuthor(bookUpdateRequest.getAuthor());
+            book.setTitle(bookUpdateRequest.getTitle());
+            updated.add(book);
+            results[i] = BatchItemResult.success(i, book.getId(), Status.UPDATED);
+        }
+        if (!updated.isEmpty()) {
+            // the batch is flushed here rather than at commit so the change events carry the new versions
+            entityManager.flush();
+            updated.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.updated(buildResponse(book))));
+        }
+        BatchResponse batchResponse = BatchResponse.of(Arrays.asList(results));
+        log.info("updateAll completed, succeeded: {}, failed: {}", batchResponse.getSucceeded(), batchResponse.getFailed());
+        return batchResponse;
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = BOOKS, allEntries = true),
+            @CacheEvict(cacheNames = BOOK_EXISTS, allEntries = true)})
+    public BatchResponse deleteAll(List<Long> ids) {
+        log.info("bookService.deleteAll entered with {} ids", ids == null ? 0 : ids.size());
+        validateBatch(ids);
+        // a single DELETE that hands back the rows it removed, which are exactly the books that existed
+        List<BookVersion> deleted = bookRepository.deleteReturningVersions(
+                ids.stream().filter(Objects::nonNull).collect(Collectors.toSet()));
+        Set<Long> existingIds = deleted.stream().map(BookVersion::getId).collect(Collectors.toSet());
+        deleted.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.deleted(book.getId(), book.getVersion())));
+
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results.add(BatchItemResult.failure(i, null, Status.INVALID, "id cannot be null"));
+            } else if (existingIds.contains(id)) {
+                results.add(BatchItemResult.success(i, id, Status.DELETED));
+            } else {
+                bookMetrics.bookNotFound();
+                results.add(BatchItemResult.failure(i, id, Status.NOT_FOUND, "Book not found with id: " + id));
+            }
+        }
+        BatchResponse batchResponse = BatchResponse.of(results);
+        log.info("deleteAll completed, succeeded: {}, failed: {}", batchResponse.getSucceeded(), batchResponse.getFailed());
+        return batchResponse;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = BOOKS, key = "#id")
     public BookResponse findById(Long id) {
         log.info("bookService.findById entered with id : {} ", id);
-        Optional<Book> book = bookRepository.findById(id);
-        log.info("completed book: {}", book);
-        return buildResponse(book.orElseThrow(() -> new BookNotFoundException("book not found with id: " + id)));
+        BookResponse bookResponse = bookRepository.findResponseById(id)
+                .orElseThrow(() -> bookNotFound("book not found with id: " + id));
+        log.debug("completed book: {}", bookResponse);
+        return bookResponse;
     }
 
     @Override
+    @Cacheable(cacheNames = BOOK_EXISTS, key = "#id")
     public boolean existsById(Long id) {
         log.info("bookService.existsById entered with id : {} ", id);
-        boolean exists = bookRepository.existsById(id);
-        log.info("exists: {}", exists);
+        boolean exists = bookRepository.existsBookById(id);
+        log.info("existsById completed for id: {}, exists: {}", id, exists);
         return exists;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<BookResponse> findAllById(List<Long> ids) {
+        log.info("bookService.findAllById entered with {} ids", ids == null ? 0 : ids.size());
+        List<Long> distinctIds = validateLookup(ids);
+        Map<Long, BookResponse> books = new HashMap<>();
+        for (List<Long> chunk : chunks(distinctIds)) {
+            bookRepository.findResponsesByIds(chunk).forEach(book -> books.put(book.getId(), book));
+        }
+        List<BookResponse> bookResponses = distinctIds.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        log.info("findAllById completed, requested: {}, found: {}", distinctIds.size(), bookResponses.size());
+        return bookResponses;
+    }
+
+    @Override
+    public Set<Long> findExistingIds(List<Long> ids) {
+        log.info("bookService.findExistingIds entered with {} ids", ids == null ? 0 : ids.size());
+        List<Long> distinctIds = validateLookup(ids);
+        Set<Long> existingIds = new TreeSet<>();
+        for (List<Long> chunk : chunks(distinctIds)) {
+            existingIds.addAll(bookRepository.findExistingIds(chunk));
+        }
+        log.info("findExistingIds completed, requested: {}, found: {}", distinctIds.size(), existingIds.size());
+        return existingIds;
+    }
+
+    @Override
+    public BookRevision findRevision(Long id) {
+        log.info("bookService.findRevision entered with id : {} ", id);
+        return bookRepository.findRevisionById(id)
+                .orElseThrow(() -> bookNotFound("book not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @CachePut(cacheNames = BOOKS, key = "#id")
+    public BookResponse refreshById(Long id) {
+        log.info("bookService.refreshById entered with id : {} ", id);
+        return bookRepository.findResponseById(id)
+                .orElseThrow(() -> bookNotFound("book not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogRevision findCatalogRevision() {
+        log.info("bookService.findCatalogRevision entered");
+        return bookRepository.findCatalogRevision();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<BookResponse> findAll() {
         log.info("bookService.findAll entered");
-        Iterable<Book> books = bookRepository.findAll();
-
-        List<BookResponse> bookResponses = stream(books.spliterator(), false)
-                .map(BookResponse::buildResponse)
-                .sorted(Comparator
-                        .comparing(BookResponse::getCreatedOn, Comparator.nullsLast(Comparator.naturalOrder()))
-                        .thenComparing(BookResponse::getTitle)
-                        .reversed())
-                .collect(Collectors.toList());
-        
+        List<BookResponse> bookResponses = bookRepository
+                .findResponses(PageRequest.ofSize(bookProperties.getMaxListSize()));
+
         // Don't throw exception for empty list, just return empty list
-        log.info("findAll success response:{}", bookResponses);
+        log.info("findAll success, books: {}", bookResponses.size());
+        log.debug("findAll success response:{}", bookResponses);
+        return bookResponses;
+    }
+
+    @Override
+    public long findAll(Consumer<BookResponse> consumer) {
+        log.info("bookService.findAll entered with a consumer");
+        long found = forEachChunk(bookProperties.getMaxListSize(), consumer);
+        log.info("findAll success, books: {}", found);
+        return found;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookPageResponse findPage(String cursor, Integer size) {
+        log.info("bookService.findPage entered with cursor: {} and size: {}", cursor, size);
+        int pageSize = resolvePageSize(size);
+        // one extra row tells us whether there is a next page without a count query
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        List<BookResponse> books;
+        if (StringUtils.hasText(cursor)) {
+            BookCursor after = BookCursor.decode(cursor);
+            books = bookRepository.findResponsesAfter(after.getCreatedOn(), after.getTitle(), after.getId(), limit);
+        } else {
+            books = bookRepository.findResponses(limit);
+        }
+
+        BookPageResponse page = toPage(books, pageSize);
+        log.info("findPage success, books: {}, hasNext: {}", page.getBooks().size(), page.isHasNext());
+        log.debug("findPage success response:{}", page);
+        return page;
+    }
+
+    @Override
+    public long exportAll(Consumer<BookResponse> consumer) {
+        log.info("bookService.exportAll entered");
+        long exported = forEachChunk(Long.MAX_VALUE, consumer);
+        log.info("exportAll completed, exported: {}", exported);
+        return exported;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookPageResponse filter(BookFilterRequest filter) {
+        log.info("bookService.filter entered with filter: {}", filter);
+        Assert.notNull(filter, "filter cannot be null");
+        Specification<Book> specification = Specification.where(null);
+        if (StringUtils.hasText(filter.getAuthor())) {
+            specification = specification.and(authorEquals(filter.getAuthor()));
+        }
+        if (StringUtils.hasText(filter.getTitlePrefix())) {
+            specification = specification.and(titleStartsWith(filter.getTitlePrefix()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            specification = specification.and(createdOnOrAfter(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            Assert.isTrue(filter.getCreatedFrom() == null || filter.getCreatedFrom().before(filter.getCreatedTo()),
+                    "createdFrom must be before createdTo");
+            specification = specification.and(createdBefore(filter.getCreatedTo()));
+        }
+        if (StringUtils.hasText(filter.getCursor())) {
+            BookCursor after = BookCursor.decode(filter.getCursor());
+            specification = specification.and(listedAfter(after.getCreatedOn(), after.getTitle(), after.getId()));
+        }
+
+        int pageSize = resolvePageSize(filter.getSize());
+        // a limited query rather than a Page: one extra row tells whether there is more, no count is run
+        List<BookResponse> books = bookRepository.findResponsesBy(specification, LISTING_ORDER, pageSize + 1);
+        BookPageResponse page = toPage(books, pageSize);
+        log.info("filter success, books: {}, hasNext: {}", page.getBooks().size(), page.isHasNext());
+        log.debug("filter success response:{}", page);
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookResponse> search(String query, Integer limit) {
+        log.info("bookService.search entered with query: {} and limit: {}", query, limit);
+        Assert.hasText(query, "search query cannot be empty");
+        List<Long> ids = bookSearchIndex.search(query, resolvePageSize(limit));
+        if (ids.isEmpty()) {
+            log.info("search success, books: 0");
+            return List.of();
+        }
+        Map<Long, BookResponse> books = new HashMap<>();
+        bookRepository.findResponsesByIds(ids).forEach(book -> books.put(book.getId(), book));
+        // keep the ranking of the index, skipping books deleted since they were ranked
+        List<BookResponse> bookResponses = ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        log.info("search success, books: {}", bookResponses.size());
+        log.debug("search success response:{}", bookResponses);
         return bookResponses;
     }
 
     @Override
     public long count() {
         log.info("bookService.count entered");
-        long count = bookRepository.count();
+        long count = bookCounter.get();
         log.info("count completed:{}", count);
         return count;
     }
 
     @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = BOOKS, key = "#id"),
+            @CacheEvict(cacheNames = BOOK_EXISTS, key = "#id")})
     public void deleteById(Long id) {
         log.info("bookService.deleteById entered with id: {}", id);
-        if (!bookRepository.existsById(id)) {
-            throw new BookNotFoundException("Book not found with id: " + id);
+        // a single DELETE, the rows it hands back tell us whether the book existed and which version went
+        List<BookVersion> deleted = bookRepository.deleteReturningVersions(List.of(id));
+        if (deleted.isEmpty()) {
+            throw bookNotFound("Book not found with id: " + id);
         }
-        bookRepository.deleteById(id);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id, deleted.get(0).getVersion()));
         log.info("deleteById completed successfully for id: {}", id);
     }
 
+    /**
+     * Hands up to max books to the consumer in listing order, read in keyset chunks of stream-chunk-size.
+     * Each chunk is its own short query, so no connection is held while the consumer writes to a slow
+     * client. The listing is not a snapshot: a book written between chunks shows up only if it sorts
+     * after the chunk already handed over.
+     */
+    private long forEachChunk(long max, Consumer<BookResponse> consumer) {
+        long count = 0;
+        int chunkSize = (int) Math.min(bookProperties.getStreamChunkSize(), max);
+        List<BookResponse> chunk = bookRepository.findResponses(PageRequest.ofSize(chunkSize));
+        while (!chunk.isEmpty()) {
+            for (BookResponse book : chunk) {
+                consumer.accept(book);
+            }
+            count += chunk.size();
+            if (chunk.size() < chunkSize || count >= max) {
+                break;
+            }
+            BookResponse last = chunk.get(chunk.size() - 1);
+            chunkSize = (int) Math.min(bookProperties.getStreamChunkSize(), max - count);
+            chunk = bookRepository.findResponsesAfter(last.getCreatedOn(), last.getTitle(), last.getId(),
+                    PageRequest.ofSize(chunkSize));
+        }
+        return count;
+    }
+
+    /**
+     * cuts a listing read with one row past the page size into a page and the cursor after its last book
+     */
+    private static BookPageResponse toPage(List<BookResponse> books, int pageSize) {
+        boolean hasNext = books.size() > pageSize;
+        List<BookResponse> bookResponses = hasNext ? books.subList(0, pageSize) : books;
+        return BookPageResponse.builder()
+                .books(bookResponses)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? BookCursor.of(bookResponses.get(bookResponses.size() - 1)).encode() : null)
+                .build();
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return bookProperties.getDefaultPageSize();
+        }
+        Assert.isTrue(size > 0, "page size must be greater than zero");
+        return Math.min(size, bookProperties.getMaxPageSize());
+    }
+
     private void validateRequest(BookRequest bookRequest) {
-        Assert.notNull(bookRequest, "book request cannot be null");
-        Assert.hasText(bookRequest.getAuthor(), "author cannot be empty");
-        Assert.hasText(bookRequest.getTitle(), "title cannot be empty");
+        try {
+            Assert.notNull(bookRequest, "book request cannot be null");
+            Assert.hasText(bookRequest.getAuthor(), "author cannot be empty");
+            Assert.hasText(bookRequest.getTitle(), "title cannot be empty");
+        } catch (IllegalArgumentException e) {
+            bookMetrics.validationFailed();
+            throw e;
+        }
+    }
+
+    private void validateRequest(BookUpdateRequest bookUpdateRequest) {
+        try {
+            Assert.notNull(bookUpdateRequest, "book request cannot be null");
+            Assert.notNull(bookUpdateRequest.getId(), "id cannot be null");
+            Assert.hasText(bookUpdateRequest.getAuthor(), "author cannot be empty");
+            Assert.hasText(bookUpdateRequest.getTitle(), "title cannot be empty");
+        } catch (IllegalArgumentException e) {
+            bookMetrics.validationFailed();
+            throw e;
+        }
+    }
+
+    private BookNotFoundException bookNotFound(String message) {
+        bookMetrics.bookNotFound();
+        return new BookNotFoundException(message);
+    }
+
+    private List<Long> validateLookup(List<Long> ids) {
+        validateBatch(ids);
+        Assert.noNullElements(ids, "ids cannot contain null");
+        return ids.stream().distinct().collect(Collectors.toList());
+    }
+
+    /**
+     * splits the ids so every IN list stays within library.books.lookup-chunk-size bind parameters
+     */
+    private List<List<Long>> chunks(List<Long> ids) {
+        int chunkSize = bookProperties.getLookupChunkSize();
+        List<List<Long>> chunks = new ArrayList<>((ids.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    private void validateBatch(List<?> batch) {
+        Assert.notEmpty(batch, "batch cannot be empty");
+        Assert.isTrue(batch.size() <= bookProperties.getMaxBatchSize(),
+                "batch cannot contain more than " + bookProperties.getMaxBatchSize() + " items");
     }
 }
@@ -0,0 +1,157 @@
+package com.digicert.libraryapi.service.impl;
+
+import com.digicert.libraryapi.config.BookProperties;
+import com.digicert.libraryapi.controller.request.BookFilterRequest;
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.request.BookUpdateRequest;
+import com.digicert.libraryapi.controller.response.BatchResponse;
+import com.digicert.libraryapi.controller.response.BookPageResponse;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.exception.BookNotFoundException;
+import com.digicert.libraryapi.metrics.BookMetrics;
+import com.digicert.libraryapi.persistance.repository.ReactiveBookRepository;
+import com.digicert.libraryapi.service.BookService;
+import com.digicert.libraryapi.service.ReactiveBookService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import static com.digicert.libraryapi.config.CacheConfig.BOOKS;
+import static com.digicert.libraryapi.config.CacheConfig.BOOK_EXISTS;
+
+/**
+ * Single-book reads and the catalog listings run on R2DBC. Everything else delegates to the blocking
+ * {@link BookService} on the bounded elastic scheduler, so validation, caching, the counter and the
+ * search index behave exactly as on the servlet stack. The single-book reads look in the same books
+ * and bookExists caches first and fill them on a miss, so both stacks share the entries that the
+ * write paths put and evict.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveBookServiceImpl implements ReactiveBookService {
+
+    private final BookService bookService;
+    private final ReactiveBookRepository reactiveBookRepository;
+    private final BookProperties bookProperties;
+    private final BookMetrics bookMetrics;
+    private final CacheManager cacheManager;
+
+    @Override
+    public Mono<BookResponse> save(BookRequest book) {
+        return blocking(() -> bookService.save(book));
+    }
+
+    @Override
+    public Mono<BookResponse> update(BookRequest bookRequest, Long id) {
+        return blocking(() -> bookService.update(bookRequest, id));
+    }
+
+    @Override
+    public Mono<BatchResponse> saveAll(List<BookRequest> bookRequests) {
+        return blocking(() -> bookService.saveAll(bookRequests));
+    }
+
+    @Override
+    public Mono<BatchResponse> updateAll(List<BookUpdateRequest> bookUpdateRequests) {
+        return blocking(() -> bookService.updateAll(bookUpdateRequests));
+    }
+
+    @Override
+    public Mono<BatchResponse> deleteAll(List<Long> ids) {
+        return blocking(() -> bookService.deleteAll(ids));
+    }
+
+    @Override
+    public Mono<BookResponse> findById(Long id) {
+        log.info("reactiveBookService.findById entered with id : {} ", id);
+        Cache books = cache(BOOKS);
+        return Mono.fromSupplier(() -> books.get(id, BookResponse.class))
+                .switchIfEmpty(Mono.defer(() -> reactiveBookRepository.findById(id)
+                        .doOnNext(book -> books.put(id, book))))
+                .switchIfEmpty(Mono.error(() -> {
+                    bookMetrics.bookNotFound();
+                    return new BookNotFoundException("book not found with id: " + id);
+                }));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        log.info("reactiveBookService.existsById entered with id : {} ", id);
+        Cache bookExists = cache(BOOK_EXISTS);
+        return Mono.fromSupplier(() -> bookExists.get(id, Boolean.class))
+                .switchIfEmpty(Mono.defer(() -> reactiveBookRepository.existsById(id)
+                        .doOnNext(exists -> bookExists.put(id, exists))));
+    }
+
+    @Override
+    public Flux<BookResponse> findAllById(List<Long> ids) {
+        return blocking(() -> bookService.findAllById(ids)).flatMapIterable(books -> books);
+    }
+
+    @Override
+    public Mono<Set<Long>> findExistingIds(List<Long> ids) {
+        return blocking(() -> bookService.findExistingIds(ids));
+    }
+
+    @Override
+    public Flux<BookResponse> findAll() {
+        log.info("reactiveBookService.findAll entered");
+        return reactiveBookRepository.findAll(bookProperties.getMaxListSize());
+    }
+
+    @Override
+    public Mono<BookPageResponse> findPage(String cursor, Integer size) {
+        return blocking(() -> bookService.findPage(cursor, size));
+    }
+
+    @Override
+    public Flux<BookResponse> exportAll() {
+        log.info("reactiveBookService.exportAll entered");
+        return reactiveBookRepository.streamAll()
+                .doOnComplete(() -> log.info("exportAll completed"));
+    }
+
+    @Override
+    public Mono<BookPageResponse> filter(BookFilterRequest filter) {
+        return blocking(() -> bookService.filter(filter));
+    }
+
+    @Override
+    public Flux<BookResponse> search(String query, Integer limit) {
+        return blocking(() -> bookService.search(query, limit)).flatMapIterable(books -> books);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        // served from the in-memory counter, never blocks
+        return Mono.fromSupplier(bookService::count);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return Mono.fromRunnable(() -> bookService.deleteById(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), () -> "cache not configured: " + name);
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,51 @@
+package com.digicert.libraryapi.service.ingestion;
+
+import com.digicert.libraryapi.persistance.entity.Book;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out book ids without an insert, using the same pooled-lo scheme as Hibernate: every
+ * BOOK_SEQ value is the low end of a block of {@link Book#ID_ALLOCATION_SIZE} ids, so ids
+ * allocated here never collide with the ones Hibernate assigns.
+ */
+@Component
+public class BookIdAllocator {
+    private static final String SEQUENCE = "BOOK_SEQ";
+
+    private final JdbcTemplate jdbcTemplate;
+    /**
+     * the dialect's next value statement for BOOK_SEQ, NEXT VALUE FOR on H2, nextval() on PostgreSQL
+     */
+    private final String nextBlock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long limit;
+
+    public BookIdAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextBlock = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport()
+                .getSequenceNextValString(SEQUENCE);
+    }
+
+    public long nextId() {
+        lock.lock();
+        try {
+            if (next == limit) {
+                // one sequence round-trip per block
+                next = jdbcTemplate.queryForObject(nextBlock, Long.class);
+                limit = next + Book.ID_ALLOCATION_SIZE;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.digicert.libraryapi.service.ingestion;
+
+import com.digicert.libraryapi.config.IngestionProperties;
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.exception.IngestionQueueFullException;
+import com.digicert.libraryapi.metrics.BookMetrics;
+import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.digicert.libraryapi.config.CacheConfig.BOOK_EXISTS;
+import static com.digicert.libraryapi.controller.response.BookResponse.buildResponse;
+
+/**
+ * Write-behind path for POST /books/add, enabled with library.ingestion.async-enabled. A submitted book
+ * is validated, given an id from {@link BookIdAllocator} and queued; a single flusher thread writes the
+ * queue in JDBC batches once flush-size books are waiting or flush-interval has passed. The queue is a
+ * lock-free linked queue bounded by a CAS-reserved depth, submissions beyond queue-capacity are rejected
+ * so the caller can back off. Shutdown stops the flusher and writes whatever is still queued.
+ * <p>
+ * Every queued book was acknowledged with 202, so a failed batch is not dropped: it is retried ahead of
+ * the queue up to max-retries times with a doubling backoff, keeping its queue slots so submissions see
+ * the backlog, then inserted one row per transaction so a single bad row cannot sink the rest. Rows that
+ * still fail go to {@link IngestionDeadLetters}.
+ */
+@Slf4j
+@Service
+public class BookIngestionService {
+    private static final String INSERT_BOOK = "INSERT INTO BOOK (ID, TITLE, AUTHOR, CREATED_ON, LAST_MODIFIED, VERSION) "
+            + "VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final IngestionProperties ingestionProperties;
+    private final BookIdAllocator bookIdAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookMetrics bookMetrics;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IngestionDeadLetters deadLetters;
+    private final Queue<Book> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Timer flushTimer;
+    private final Counter rejected;
+    private final Counter failed;
+    private volatile boolean running;
+    private volatile Thread flusher;
+    // one flush at a time: the flusher and the shutdown drain; a lock rather than a monitor, so a virtual thread
+    // running the JDBC batch or waiting on it does not pin its carrier
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // the failed batch waiting for its next attempt; guarded by flushLock, volatile for the flusher's park check
+    private volatile List<Book> retryBatch;
+    private int retryAttempts;
+    private long retryAtNanos;
+
+    public BookIngestionService(IngestionProperties ingestionProperties,
+                                BookIdAllocator bookIdAllocator,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                BookMetrics bookMetrics,
+                                CacheManager cacheManager,
+                                ApplicationEventPublisher eventPublisher,
+                                IngestionDeadLetters deadLetters,
+                                MeterRegistry meterRegistry) {
+        this.ingestionProperties = ingestionProperties;
+        this.bookIdAllocator = bookIdAllocator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.bookMetrics = bookMetrics;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.deadLetters = deadLetters;
+        Gauge.builder("library.ingestion.queue.depth", depth, AtomicInteger::get)
+                .description("books accepted by the write-behind path and not yet written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("library.ingestion.flush")
+                .description("time to write one batch of queued books")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("library.ingestion.rejected")
+                .description("submissions rejected because the ingestion queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("library.ingestion.failed")
+                .description("queued books whose batch insert failed, counted once per failed attempt")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return ingestionProperties.isAsyncEnabled();
+    }
+
+    public BookResponse submit(BookRequest bookRequest) {
+        log.info("bookIngestionService.submit entered");
+        log.debug("submit request: {}", bookRequest);
+        validateRequest(bookRequest);
+        if (!reserve()) {
+            rejected.increment();
+            throw new IngestionQueueFullException("ingestion queue is full, retry later");
+        }
+        Book book;
+        try {
+            Date now = new Date();
+            book = Book.builder()
+                    .id(bookIdAllocator.nextId())
+                    .author(bookRequest.getAuthor())
+                    .title(bookRequest.getTitle())
+                    .createdOn(now)
+                    .lastModified(now)
+                    .version(0L)
+                    .build();
+        } catch (RuntimeException e) {
+            depth.decrementAndGet();
+            throw e;
+        }
+        queue.offer(book);
+        if (depth.get() >= ingestionProperties.getFlushSize()) {
+            LockSupport.unpark(flusher);
+        }
+        log.info("submit accepted, id: {}", book.getId());
+        return buildResponse(book);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "book-ingestion-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("write-behind ingestion started, capacity: {}, flush size: {}, flush interval: {}",
+                ingestionProperties.getQueueCapacity(), ingestionProperties.getFlushSize(),
+                ingestionProperties.getFlushInterval());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(ingestionProperties.getShutdownTimeout().toMillis());
+        // the web server has stopped accepting requests, whatever the flusher left behind is written here
+        int drained = 0;
+        for (int written = flush(true); written > 0; written = flush(true)) {
+            drained += written;
+        }
+        log.info("write-behind ingestion stopped, drained on shutdown: {}", drained);
+    }
+
+    int depth() {
+        return depth.get();
+    }
+
+    /**
+     * writes up to flush-size queued books as one JDBC batch in one transaction, or retries the batch
+     * that failed last time once its backoff has passed
+     *
+     * @return the number of books written or dead-lettered, 0 when there was nothing to do or a failed
+     * batch is waiting for its retry
+     */
+    int flush() {
+        return flush(false);
+    }
+
+    /**
+     * @param draining on shutdown a failed batch is not kept for a later retry, it goes row by row at once
+     */
+    int flush(boolean draining) {
+        flushLock.lock();
+        try {
+            return flushLocked(draining);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushLocked(boolean draining) {
+        List<Book> books = retryBatch;
+        if (books != null) {
+            if (!draining && System.nanoTime() - retryAtNanos < 0) {
+                return 0;
+            }
+        } else {
+            books = poll();
+            if (books.isEmpty()) {
+                return 0;
+            }
+        }
+
+        List<Book> written;
+        Timer.Sample sample = Timer.start();
+        try {
+            insert(books);
+            written = books;
+        } catch (DataAccessException e) {
+            failed.increment(books.size());
+            if (!draining && retryAttempts < ingestionProperties.getMaxRetries()) {
+                retryAttempts++;
+                long backoff = ingestionProperties.getRetryBackoff().toNanos() << (retryAttempts - 1);
+                retryAtNanos = System.nanoTime() + backoff;
+                retryBatch = books;
+                log.warn("write-behind flush of {} books failed, ids {} to {}, retry {} of {} in {} ms: {}",
+                        books.size(), books.get(0).getId(), books.get(books.size() - 1).getId(), retryAttempts,
+                        ingestionProperties.getMaxRetries(), backoff / 1_000_000, e.getMessage());
+                return 0;
+            }
+            log.error("write-behind flush of {} books failed after {} retries, inserting them one by one: {}",
+                    books.size(), retryAttempts, e.getMessage(), e);
+            written = insertEach(books);
+        } finally {
+            sample.stop(flushTimer);
+        }
+        retryBatch = null;
+        retryAttempts = 0;
+        // the slots are released only now, a batch waiting for a retry still counts against queue-capacity
+        depth.addAndGet(-books.size());
+
+        Cache exists = cacheManager.getCache(BOOK_EXISTS);
+        for (Book book : written) {
+            // a client may have asked about the id between the 202 and the insert
+            if (exists != null) {
+                exists.evict(book.getId());
+            }
+        }
+        log.info("write-behind flush completed, books: {}, dead-lettered: {}", written.size(),
+                books.size() - written.size());
+        return books.size();
+    }
+
+    private List<Book> poll() {
+        int flushSize = ingestionProperties.getFlushSize();
+        List<Book> books = new ArrayList<>(Math.min(flushSize, depth.get()));
+        Book book;
+        while (books.size() < flushSize && (book = queue.poll()) != null) {
+            books.add(book);
+        }
+        return books;
+    }
+
+    private void insert(List<Book> books) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_BOOK, books, books.size(), (statement, queued) -> {
+                statement.setLong(1, queued.getId());
+                statement.setString(2, queued.getTitle());
+                statement.setString(3, queued.getAuthor());
+                statement.setTimestamp(4, new Timestamp(queued.getCreatedOn().getTime()));
+                statement.setTimestamp(5, new Timestamp(queued.getLastModified().getTime()));
+            });
+            // published inside the transaction so outbox rows commit with the batch
+            books.forEach(queued -> eventPublisher.publishEvent(BookChangedEvent.created(buildResponse(queued))));
+        });
+    }
+
+    /**
+     * one transaction per book, so the rows that can be written are and only the failing ones are set aside
+     *
+     * @return the books that were inserted
+     */
+    private List<Book> insertEach(List<Book> books) {
+        List<Book> written = new ArrayList<>(books.size());
+        for (Book book : books) {
+            try {
+                insert(List.of(book));
+                written.add(book);
+            } catch (DataAccessException e) {
+                deadLetter(book, e);
+            }
+        }
+        return written;
+    }
+
+    private void deadLetter(Book book, DataAccessException cause) {
+        try {
+            deadLetters.write(book, cause);
+        } catch (RuntimeException e) {
+            // the log is the last place the book is recorded
+            log.error("book could not be inserted nor dead-lettered, id: {}, title: {}, author: {}, created on: {}",
+                    book.getId(), book.getTitle(), book.getAuthor(), book.getCreatedOn().getTime(), e);
+        }
+    }
+
+    private void flushLoop() {
+        long intervalNanos = ingestionProperties.getFlushInterval().toNanos();
+        while (running) {
+            if (depth.get() < ingestionProperties.getFlushSize() || retryBatch != null) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("write-behind flusher failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * claims a slot in the queue without taking a lock, fails once queue-capacity slots are taken
+     */
+    private boolean reserve() {
+        int capacity = ingestionProperties.getQueueCapacity();
+        int current;
+        do {
+            current = depth.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!depth.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void validateRequest(BookRequest bookRequest) {
+        try {
+            Assert.notNull(bookRequest, "book request cannot be null");
+            Assert.hasText(bookRequest.getAuthor(), "author cannot be empty");
+            Assert.hasText(bookRequest.getTitle(), "title cannot be empty");
+        } catch (IllegalArgumentException e) {
+            bookMetrics.validationFailed();
+            throw e;
+        }
+    }
+}
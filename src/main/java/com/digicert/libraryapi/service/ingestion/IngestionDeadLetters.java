@@ -0,0 +1,74 @@
+package com.digicert.libraryapi.service.ingestion;
+
+import com.digicert.libraryapi.config.IngestionProperties;
+import com.digicert.libraryapi.persistance.entity.Book;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.digicert.libraryapi.controller.response.BookResponse.buildResponse;
+
+/**
+ * Keeps the queued books the write-behind path could not insert. They were already acknowledged with
+ * 202 and an id, so each one is appended to library.ingestion.dead-letter-file as a json line with the
+ * book and the error, synced to disk before the flusher moves on. The file lives outside the database
+ * because the database is usually what failed; the books can be re-submitted from it.
+ */
+@Slf4j
+@Component
+public class IngestionDeadLetters {
+
+    private final IngestionProperties ingestionProperties;
+    private final ObjectMapper objectMapper;
+    private final Counter deadLettered;
+
+    public IngestionDeadLetters(IngestionProperties ingestionProperties,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.ingestionProperties = ingestionProperties;
+        this.objectMapper = objectMapper;
+        this.deadLettered = Counter.builder("library.ingestion.dead.lettered")
+                .description("queued books written to the dead-letter file after every insert attempt failed")
+                .register(meterRegistry);
+    }
+
+    public void write(Book book, Exception cause) {
+        Path file = ingestionProperties.getDeadLetterFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE,
+                    StandardOpenOption.DSYNC)) {
+                writer.write(line(book, cause));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("writing book " + book.getId() + " to dead-letter file " + file + " failed", e);
+        }
+        deadLettered.increment();
+        log.error("book {} could not be inserted and was written to {}: {}", book.getId(), file, cause.getMessage());
+    }
+
+    private String line(Book book, Exception cause)
+            throws JsonProcessingException {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("book", buildResponse(book));
+        entry.put("error", cause.getMessage());
+        return objectMapper.writeValueAsString(entry);
+    }
+}
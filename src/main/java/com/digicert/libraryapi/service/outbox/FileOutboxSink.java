@@ -0,0 +1,52 @@
+package com.digicert.libraryapi.service.outbox;
+
+import com.digicert.libraryapi.config.OutboxProperties;
+import com.digicert.libraryapi.persistance.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends every relayed event to library.outbox.file as one json line carrying the outbox id, a stand-in
+ * for a message broker that other processes can tail.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "library.outbox", name = "sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final OutboxProperties outboxProperties;
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        Path file = outboxProperties.getFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            // one write and one sync per batch, the rows are only deleted once the lines are on disk
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE,
+                    StandardOpenOption.DSYNC)) {
+                for (OutboxEvent event : events) {
+                    writer.write("{\"outboxId\":" + event.getId() + ",\"event\":" + event.getPayload() + "}");
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("writing outbox events to " + file + " failed", e);
+        }
+        log.debug("appended {} outbox events to {}", events.size(), file);
+    }
+}
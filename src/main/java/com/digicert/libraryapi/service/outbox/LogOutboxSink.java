@@ -0,0 +1,25 @@
+package com.digicert.libraryapi.service.outbox;
+
+import com.digicert.libraryapi.persistance.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Logs every relayed event, the default sink for local runs.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "library.outbox", name = "sink", havingValue = "log", matchIfMissing = true)
+public class LogOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("outbox event {}: {} book {} {}", event.getId(), event.getEventType(), event.getBookId(),
+                    event.getPayload());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.digicert.libraryapi.service.outbox;
+
+import com.digicert.libraryapi.config.OutboxProperties;
+import com.digicert.libraryapi.persistance.entity.OutboxEvent;
+import com.digicert.libraryapi.persistance.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moves OUTBOX rows to the {@link OutboxSink}. Each batch is claimed, published and deleted in one
+ * transaction: rows are locked with SKIP LOCKED so several instances can relay side by side, and a
+ * failed publish rolls back to leave the batch for the next run. A run keeps going while batches come
+ * back full, up to max-batches-per-poll, then waits poll-interval.
+ * <p>
+ * Delivery is at least once and not ordered: ids come from a pooled sequence and relays skip each
+ * other's locked rows, so id order is not commit order, and a rolled back batch is published again.
+ * Every event carries the book's version, deletions the last version the book had; a consumer keeps
+ * the highest version it has seen per book and drops anything older.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "library.outbox", name = "enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private final OutboxProperties outboxProperties;
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter relayed;
+    private final Counter failed;
+    private final DistributionSummary batchSize;
+    private final Timer lag;
+
+    public OutboxRelay(OutboxProperties outboxProperties,
+                       OutboxRepository outboxRepository,
+                       OutboxSink outboxSink,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.outboxProperties = outboxProperties;
+        this.outboxRepository = outboxRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = transactionTemplate;
+        this.relayed = Counter.builder("library.outbox.relayed")
+                .description("outbox events published to the sink and deleted")
+                .register(meterRegistry);
+        this.failed = Counter.builder("library.outbox.failed")
+                .description("relay batches rolled back because publishing or deleting failed")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("library.outbox.batch.size")
+                .description("outbox events relayed per transaction")
+                .register(meterRegistry);
+        this.lag = Timer.builder("library.outbox.lag")
+                .description("time from the book change to its event being relayed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${library.outbox.poll-interval:PT0.5S}")
+    public void poll() {
+        int batches = 0;
+        try {
+            while (batches++ < outboxProperties.getMaxBatchesPerPoll()
+                    && relayBatch() == outboxProperties.getBatchSize()) {
+                log.debug("outbox relay batch {} was full, continuing", batches);
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("outbox relay failed, the batch stays in the outbox: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the number of events relayed
+     */
+    int relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxRepository.claimBatch(PageRequest.ofSize(outboxProperties.getBatchSize()));
+            if (batch.isEmpty()) {
+                return Collections.<OutboxEvent>emptyList();
+            }
+            outboxSink.publish(batch);
+            outboxRepository.deleteAllWithIds(batch.stream().map(OutboxEvent::getId).toList());
+            return batch;
+        });
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        long now = System.currentTimeMillis();
+        for (OutboxEvent event : events) {
+            lag.record(Duration.ofMillis(Math.max(0, now - event.getCreatedOn().getTime())));
+        }
+        relayed.increment(events.size());
+        batchSize.record(events.size());
+        log.debug("relayed {} outbox events, last id: {}", events.size(), events.get(events.size() - 1).getId());
+        return events.size();
+    }
+}
@@ -0,0 +1,19 @@
+package com.digicert.libraryapi.service.outbox;
+
+import com.digicert.libraryapi.persistance.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Where {@link OutboxRelay} delivers book changes. Delivery is at least once: when publish throws,
+ * the batch stays in the outbox and is offered again, so consumers should ignore outbox ids they have
+ * already seen.
+ */
+@FunctionalInterface
+public interface OutboxSink {
+
+    /**
+     * @param events a batch in outbox id order
+     */
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,49 @@
+package com.digicert.libraryapi.service.outbox;
+
+import com.digicert.libraryapi.persistance.entity.OutboxEvent;
+import com.digicert.libraryapi.persistance.repository.OutboxRepository;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.util.Date;
+
+/**
+ * Records every {@link BookChangedEvent} as an OUTBOX row. The listener runs synchronously inside the
+ * transaction that changed the book, so the row commits or rolls back with the change; the insert is
+ * flushed with the book statements and costs no extra round trip to any other system.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "library.outbox", name = "enabled", havingValue = "true")
+public class OutboxWriter {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBookChanged(BookChangedEvent event) {
+        outboxRepository.save(OutboxEvent.builder()
+                .bookId(event.getBookId())
+                .eventType(event.getType())
+                .payload(toJson(event))
+                .createdOn(new Date())
+                .build());
+    }
+
+    private String toJson(BookChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package com.digicert.libraryapi.service.search;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.persistance.repository.BookRepository;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over book titles and authors. Each token maps to a posting list
+ * of primitive book ids; tokens are kept sorted so the last query term can be matched as a prefix.
+ * <p>
+ * Results are ranked by the number of query terms matched, then by a tf-idf style score where
+ * title hits weigh more than author hits and prefix hits weigh less than exact ones.
+ * The index is built from {@link BookRepository} once the application is ready and kept
+ * in sync by the {@link BookChangedEvent}s of committed writes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndex {
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    /**
+     * shorter prefixes would expand to a large part of the vocabulary, they only match exactly
+     */
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double AUTHOR_WEIGHT = 1.0;
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final BookRepository bookRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Segment segment = new Segment();
+    /**
+     * changes committed while a rebuild is reading the catalog, replayed onto the new segment before it is
+     * swapped in; null when no rebuild is running. Guarded by the write lock.
+     */
+    private List<Consumer<Segment>> pendingChanges;
+
+    /**
+     * Reads the catalog into a new segment while searches keep using the current one, then swaps it in under
+     * the write lock. Changes that commit during the read are applied to both, the replay onto the new segment
+     * runs last so a page read before a change cannot overwrite it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            recordChanges(new ArrayList<>());
+            try {
+                Segment rebuilt = new Segment();
+                long indexed = load(rebuilt);
+                lock.writeLock().lock();
+                try {
+                    pendingChanges.forEach(change -> change.accept(rebuilt));
+                    segment = rebuilt;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.info("search index built with {} books in {} ms", indexed,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } finally {
+                recordChanges(null);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * keeps the index in step with committed changes only, so a rolled back write never shows up in search
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(event.getBookId());
+        } else {
+            BookResponse book = event.getBook();
+            put(book.getId(), book.getTitle(), book.getAuthor());
+        }
+    }
+
+    /**
+     * adds the book to the index, replacing what was indexed for it before
+     */
+    public void put(long id, String title, String author) {
+        String[] titleTokens = tokenize(title);
+        String[] authorTokens = tokenize(author);
+        // each segment swaps the tokens for its own key instances, so each gets its own copy
+        apply(target -> target.put(id, titleTokens.clone(), authorTokens.clone()));
+    }
+
+    public void remove(long id) {
+        apply(target -> target.remove(id));
+    }
+
+    /**
+     * Walks the sorted posting lists of every matching token in id order, merging them as it goes, so each
+     * book's score is summed in primitives and only the top limit books are kept.
+     *
+     * @return the ids of the best matching books, best match first
+     */
+    public List<Long> search(String query, int limit) {
+        String[] terms = tokenize(query);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int termCount = Math.min(terms.length, Long.SIZE);
+        PostingMerge merge = new PostingMerge();
+        TopHits top = new TopHits(limit);
+        lock.readLock().lock();
+        try {
+            int total = segment.documents.size();
+            for (int term = 0; term < termCount; term++) {
+                boolean prefix = term == termCount - 1 && terms[term].length() >= MIN_PREFIX_LENGTH;
+                collect(segment.titleIndex, terms[term], prefix, TITLE_WEIGHT, term, total, merge);
+                collect(segment.authorIndex, terms[term], prefix, AUTHOR_WEIGHT, term, total, merge);
+            }
+            merge.into(top);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top.ranked();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        return TOKEN_SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private void apply(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(segment);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recordChanges(List<Consumer<Segment>> changes) {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long load(Segment target) {
+        PageRequest page = PageRequest.ofSize(REBUILD_PAGE_SIZE);
+        List<BookResponse> books = bookRepository.findResponses(page);
+        long indexed = 0;
+        while (!books.isEmpty()) {
+            // the new segment is not shared yet, it is filled without the lock
+            books.forEach(book -> target.put(book.getId(), tokenize(book.getTitle()), tokenize(book.getAuthor())));
+            indexed += books.size();
+            if (books.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+            BookResponse last = books.get(books.size() - 1);
+            books = bookRepository.findResponsesAfter(last.getCreatedOn(), last.getTitle(), last.getId(), page);
+        }
+        return indexed;
+    }
+
+    private static void collect(NavigableMap<String, PostingList> index, String term, boolean prefix,
+                                double fieldWeight, int termIndex, int total, PostingMerge merge) {
+        NavigableMap<String, PostingList> matches = prefix
+                ? index.subMap(term, true, term + Character.MAX_VALUE, false)
+                : index.subMap(term, true, term, true);
+        for (Map.Entry<String, PostingList> match : matches.entrySet()) {
+            PostingList postings = match.getValue();
+            double weight = fieldWeight
+                    * Math.log(1.0 + (double) total / postings.size())
+                    * (match.getKey().equals(term) ? 1.0 : PREFIX_WEIGHT);
+            merge.add(postings, weight, termIndex);
+        }
+    }
+
+    /**
+     * one complete index: tokens to posting lists for both fields, and the tokens each book was indexed under
+     */
+    private static final class Segment {
+        private final NavigableMap<String, PostingList> titleIndex = new TreeMap<>();
+        private final NavigableMap<String, PostingList> authorIndex = new TreeMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        private void put(long id, String[] titleTokens, String[] authorTokens) {
+            remove(id);
+            addPostings(titleIndex, titleTokens, id);
+            addPostings(authorIndex, authorTokens, id);
+            documents.put(id, new Document(titleTokens, authorTokens));
+        }
+
+        private void remove(long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            removePostings(titleIndex, document.titleTokens(), id);
+            removePostings(authorIndex, document.authorTokens(), id);
+        }
+    }
+
+    /**
+     * also swaps every token for the key instance already held by the index, so a token
+     * shared by many books is stored once
+     */
+    private static void addPostings(NavigableMap<String, PostingList> index, String[] tokens, long id) {
+        for (int i = 0; i < tokens.length; i++) {
+            Map.Entry<String, PostingList> entry = index.ceilingEntry(tokens[i]);
+            PostingList postings;
+            if (entry != null && entry.getKey().equals(tokens[i])) {
+                tokens[i] = entry.getKey();
+                postings = entry.getValue();
+            } else {
+                postings = new PostingList();
+                index.put(tokens[i], postings);
+            }
+            postings.add(id);
+        }
+    }
+
+    private static void removePostings(NavigableMap<String, PostingList> index, String[] tokens, long id) {
+        for (String token : tokens) {
+            PostingList postings = index.get(token);
+            if (postings != null && postings.remove(id) && postings.isEmpty()) {
+                index.remove(token);
+            }
+        }
+    }
+
+    private record Document(String[] titleTokens, String[] authorTokens) {
+    }
+
+    /**
+     * k-way merge of posting lists: a heap of list cursors ordered by the id each one is at, so the ids come
+     * out ascending and every book's matches are adjacent
+     */
+    private static final class PostingMerge {
+        private PostingList[] lists = new PostingList[8];
+        private double[] weights = new double[8];
+        private long[] termBits = new long[8];
+        private int count;
+
+        private void add(PostingList postings, double weight, int termIndex) {
+            if (count == lists.length) {
+                int capacity = count << 1;
+                lists = Arrays.copyOf(lists, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                termBits = Arrays.copyOf(termBits, capacity);
+            }
+            lists[count] = postings;
+            weights[count] = weight;
+            termBits[count] = 1L << termIndex;
+            count++;
+        }
+
+        private void into(TopHits top) {
+            int[] positions = new int[count];
+            int[] heap = new int[count];
+            int heapSize = 0;
+            for (int list = 0; list < count; list++) {
+                if (!lists[list].isEmpty()) {
+                    heap[heapSize++] = list;
+                }
+            }
+            for (int i = (heapSize >> 1) - 1; i >= 0; i--) {
+                siftDown(heap, heapSize, i, positions);
+            }
+            while (heapSize > 0) {
+                long id = current(heap[0], positions);
+                long matchedTermMask = 0;
+                double score = 0;
+                do {
+                    int list = heap[0];
+                    matchedTermMask |= termBits[list];
+                    score += weights[list];
+                    if (++positions[list] == lists[list].size()) {
+                        heap[0] = heap[--heapSize];
+                    }
+                    if (heapSize > 0) {
+                        siftDown(heap, heapSize, 0, positions);
+                    }
+                } while (heapSize > 0 && current(heap[0], positions) == id);
+                top.offer(id, Long.bitCount(matchedTermMask), score);
+            }
+        }
+
+        private long current(int list, int[] positions) {
+            return lists[list].get(positions[list]);
+        }
+
+        private void siftDown(int[] heap, int heapSize, int index, int[] positions) {
+            int list = heap[index];
+            int half = heapSize >> 1;
+            while (index < half) {
+                int child = (index << 1) + 1;
+                if (child + 1 < heapSize && before(heap[child + 1], heap[child], positions)) {
+                    child++;
+                }
+                if (!before(heap[child], list, positions)) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = list;
+        }
+
+        /**
+         * lists at the same id come out in the order they were added, so a book's score is summed in the same
+         * order on every query and equal scores stay equal
+         */
+        private boolean before(int list, int other, int[] positions) {
+            long id = current(list, positions);
+            long otherId = current(other, positions);
+            return id < otherId || id == otherId && list < other;
+        }
+    }
+
+    /**
+     * the best limit hits in parallel primitive arrays, a heap with the weakest hit on top; hits rank by the
+     * number of query terms matched, then by score, then by id
+     */
+    private static final class TopHits {
+        private final long[] ids;
+        private final int[] matchedTerms;
+        private final double[] scores;
+        private int size;
+
+        private TopHits(int limit) {
+            ids = new long[limit];
+            matchedTerms = new int[limit];
+            scores = new double[limit];
+        }
+
+        private void offer(long id, int terms, double score) {
+            if (size < ids.length) {
+                set(size, id, terms, score);
+                siftUp(size++);
+            } else if (compare(terms, score, id, 0) > 0) {
+                set(0, id, terms, score);
+                siftDown(0);
+            }
+        }
+
+        private List<Long> ranked() {
+            Long[] ranked = new Long[size];
+            while (size > 0) {
+                ranked[size - 1] = ids[0];
+                size--;
+                set(0, ids[size], matchedTerms[size], scores[size]);
+                siftDown(0);
+            }
+            return List.of(ranked);
+        }
+
+        private int compare(int terms, double score, long id, int index) {
+            int result = Integer.compare(terms, matchedTerms[index]);
+            if (result == 0) {
+                result = Double.compare(score, scores[index]);
+            }
+            return result != 0 ? result : Long.compare(id, ids[index]);
+        }
+
+        private void siftUp(int index) {
+            long id = ids[index];
+            int terms = matchedTerms[index];
+            double score = scores[index];
+            while (index > 0) {
+                int parent = (index - 1) >> 1;
+                if (compare(terms, score, id, parent) >= 0) {
+                    break;
+                }
+                set(index, ids[parent], matchedTerms[parent], scores[parent]);
+                index = parent;
+            }
+            set(index, id, terms, score);
+        }
+
+        private void siftDown(int index) {
+            long id = ids[index];
+            int terms = matchedTerms[index];
+            double score = scores[index];
+            int half = size >> 1;
+            while (index < half) {
+                int child = (index << 1) + 1;
+                if (child + 1 < size && compare(matchedTerms[child + 1], scores[child + 1], ids[child + 1], child) < 0) {
+                    child++;
+                }
+                if (compare(terms, score, id, child) <= 0) {
+                    break;
+                }
+                set(index, ids[child], matchedTerms[child], scores[child]);
+                index = child;
+            }
+            set(index, id, terms, score);
+        }
+
+        private void set(int index, long id, int terms, double score) {
+            ids[index] = id;
+            matchedTerms[index] = terms;
+            scores[index] = score;
+        }
+    }
+}
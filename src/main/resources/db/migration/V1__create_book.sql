@@ -0,0 +1,23 @@
+-- BOOK and its id sequence as mapped by com.digicert.libraryapi.persistance.entity.Book.
+-- The sequence increments by Book.ID_ALLOCATION_SIZE: Hibernate and BookIdAllocator both
+-- treat every value as the low end of a block of 50 ids (pooled-lo).
+CREATE SEQUENCE BOOK_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE BOOK (
+    ID            BIGINT       NOT NULL,
+    TITLE         VARCHAR(255),
+    AUTHOR        VARCHAR(255),
+    CREATED_ON    TIMESTAMP(6),
+    LAST_MODIFIED TIMESTAMP(6),
+    VERSION       BIGINT,
+    CONSTRAINT PK_BOOK PRIMARY KEY (ID)
+);
+
+-- listing order and keyset pagination
+CREATE INDEX IDX_BOOK_CREATED_ON_TITLE_ID ON BOOK (CREATED_ON, TITLE, ID);
+-- author filter, newest first
+CREATE INDEX IDX_BOOK_AUTHOR_CREATED_ON ON BOOK (AUTHOR, CREATED_ON);
+-- title prefix filter
+CREATE INDEX IDX_BOOK_TITLE ON BOOK (TITLE);
+-- catalog Last-Modified for conditional GETs
+CREATE INDEX IDX_BOOK_LAST_MODIFIED ON BOOK (LAST_MODIFIED);
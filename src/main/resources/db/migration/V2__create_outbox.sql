@@ -0,0 +1,13 @@
+-- OUTBOX as mapped by com.digicert.libraryapi.persistance.entity.OutboxEvent. Rows are written in the
+-- transaction that changes BOOK and deleted by OutboxRelay once the sink has accepted them, so the
+-- primary key order is the relay order and no further index is needed.
+CREATE SEQUENCE OUTBOX_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE OUTBOX (
+    ID         BIGINT        NOT NULL,
+    BOOK_ID    BIGINT        NOT NULL,
+    EVENT_TYPE VARCHAR(16)   NOT NULL,
+    PAYLOAD    VARCHAR(4000) NOT NULL,
+    CREATED_ON TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT PK_OUTBOX PRIMARY KEY (ID)
+);
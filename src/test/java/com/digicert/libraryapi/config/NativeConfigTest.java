@@ -0,0 +1,34 @@
+package com.digicert.libraryapi.config;
+
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.exception.LibraryApiError;
+import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.persistance.projection.BookRevision;
+import com.digicert.libraryapi.persistance.projection.BookVersion;
+import com.digicert.libraryapi.persistance.projection.CatalogRevision;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeConfigTest {
+
+    @Test
+    @DisplayName("test the request, response, entity, projection and error types are registered for reflection")
+    void registerHints() {
+        RuntimeHints hints = new RuntimeHints();
+
+        new NativeConfig.LibraryApiRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        for (Class<?> type : new Class<?>[]{Book.class, BookRequest.class, BookResponse.class, LibraryApiError.class,
+                BookRevision.class, CatalogRevision.class, BookVersion.class}) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(type)
+                    .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS))
+                    .accepts(hints);
+        }
+    }
+}
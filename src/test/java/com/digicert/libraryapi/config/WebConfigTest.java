@@ -0,0 +1,91 @@
+package com.digicert.libraryapi.config;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebConfigTest {
+
+    private final WebConfig webConfig = new WebConfig(new WireFormats(new ObjectMapper(),
+            new StaticListableBeanFactory().getBeanProvider(Jackson2ObjectMapperBuilder.class)));
+
+    @Test
+    @DisplayName("test cbor and smile converters are added after json, replacing the defaults")
+    void extendMessageConverters() {
+        List<HttpMessageConverter<?>> converters = converters();
+
+        assertThat(converters).hasSize(3);
+        assertThat(converters.get(0)).isInstanceOf(MappingJackson2HttpMessageConverter.class);
+        assertThat(converters.get(1)).isInstanceOf(MappingJackson2CborHttpMessageConverter.class);
+        assertThat(converters.get(2)).isInstanceOf(MappingJackson2SmileHttpMessageConverter.class);
+    }
+
+    @Test
+    @DisplayName("test binary encodings keep the property order and write dates as epoch milliseconds")
+    void binaryEncoding() throws Exception {
+        BookResponse book = new BookResponse(1L, "first Book", "Bushy Given", new Date(1_700_000_000_000L), 2L);
+        List<HttpMessageConverter<?>> converters = converters();
+
+        for (HttpMessageConverter<?> converter : converters.subList(1, 3)) {
+            ObjectMapper mapper = ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+            byte[] encoded = mapper.writeValueAsBytes(book);
+
+            JsonNode tree = mapper.readTree(encoded);
+            assertThat(tree.fieldNames()).toIterable().containsExactly("id", "title", "author", "createdOn", "version");
+            assertThat(tree.get("createdOn").isNumber()).isTrue();
+            assertThat(mapper.readValue(encoded, BookResponse.class)).isEqualTo(book);
+            assertThat(encoded.length).isLessThan(new ObjectMapper().writeValueAsBytes(book).length);
+        }
+        assertThat(((MappingJackson2CborHttpMessageConverter) converters.get(1)).getObjectMapper().getFactory())
+                .isInstanceOf(CBORFactory.class);
+        assertThat(((MappingJackson2SmileHttpMessageConverter) converters.get(2)).getObjectMapper().getFactory())
+                .isInstanceOf(SmileFactory.class);
+    }
+
+    @Test
+    @DisplayName("test a listing of a thousand books is smaller in cbor than in json and smaller still in smile")
+    void binaryEncoding_Listing() throws Exception {
+        List<BookResponse> books = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            books.add(new BookResponse((long) i + 1, "book " + i, "author " + i % 100,
+                    new Date(1_700_000_000_000L + i * 1000L), 0L));
+        }
+        List<HttpMessageConverter<?>> converters = converters();
+
+        int json = new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writeValueAsBytes(books).length;
+        int cbor = ((AbstractJackson2HttpMessageConverter) converters.get(1)).getObjectMapper()
+                .writeValueAsBytes(books).length;
+        int smile = ((AbstractJackson2HttpMessageConverter) converters.get(2)).getObjectMapper()
+                .writeValueAsBytes(books).length;
+
+        assertThat(cbor).isLessThan(json);
+        assertThat(smile).isLessThan(cbor);
+    }
+
+    private List<HttpMessageConverter<?>> converters() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new MappingJackson2HttpMessageConverter());
+        converters.add(new MappingJackson2CborHttpMessageConverter());
+        webConfig.extendMessageConverters(converters);
+        return converters;
+    }
+}
@@ -1,27 +1,60 @@
 package com.digicert.libraryapi.controller;
 
+import com.digicert.libraryapi.config.BookProperties;
+import com.digicert.libraryapi.config.WebConfig;
+import com.digicert.libraryapi.config.WireFormats;
 import com.digicert.libraryapi.controller.advice.RestExceptionHandler;
+import com.digicert.libraryapi.controller.request.BookFilterRequest;
 import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.response.BatchItemResult;
+import com.digicert.libraryapi.controller.response.BatchResponse;
+import com.digicert.libraryapi.controller.response.BookPageResponse;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.exception.BookConflictException;
+import com.digicert.libraryapi.exception.IngestionQueueFullException;
+import com.digicert.libraryapi.persistance.projection.BookRevision;
+import com.digicert.libraryapi.persistance.projection.CatalogRevision;
 import com.digicert.libraryapi.service.BookService;
+import com.digicert.libraryapi.service.event.BookChangeBroadcaster;
+import com.digicert.libraryapi.service.ingestion.BookIngestionService;
 import com.digicert.libraryapi.util.JsonUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 import static com.digicert.libraryapi.util.TestUtil.buildBookRequest;
 import static com.digicert.libraryapi.util.TestUtil.buildBookResponse;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -33,6 +66,17 @@ class BookControllerTest {
     private MockMvc mockMvc;
     @Mock
     private BookService bookService;
+    @Mock
+    private BookIngestionService bookIngestionService;
+    @Mock
+    private BookChangeBroadcaster bookChangeBroadcaster;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private BookProperties bookProperties = new BookProperties();
+    @Spy
+    private WireFormats wireFormats = new WireFormats(new ObjectMapper(),
+            new StaticListableBeanFactory().getBeanProvider(Jackson2ObjectMapperBuilder.class));
     @InjectMocks
     private BookController bookController;
 
@@ -60,17 +104,79 @@ class BookControllerTest {
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName("test book queued for write-behind ingestion return status 202-ACCEPTED with the assigned id")
+    void save_Async() throws Exception {
+        when(bookIngestionService.isEnabled()).thenReturn(true);
+        when(bookIngestionService.submit(any(BookRequest.class)))
+                .thenReturn(buildBookResponse());
+
+        mockMvc.perform(post("/books/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(JsonUtil.toJson(buildBookRequest())))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(1))
+                .andDo(MockMvcResultHandlers.print());
+        verify(bookService, never()).save(any(BookRequest.class));
+    }
+
+    @Test
+    @DisplayName("test book submission rejected when the ingestion queue is full return status 429-TOO MANY REQUESTS")
+    void save_QueueFull() throws Exception {
+        when(bookIngestionService.isEnabled()).thenReturn(true);
+        when(bookIngestionService.submit(any(BookRequest.class)))
+                .thenThrow(new IngestionQueueFullException("ingestion queue is full, retry later"));
+
+        mockMvc.perform(post("/books/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(JsonUtil.toJson(buildBookRequest())))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
     @Test
     @DisplayName("test book updated successfully using /book/update URI return status 200-OK")
     void update() throws Exception {
 
         mockMvc.perform(put("/books/update")
+                        .param("id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(JsonUtil.toJson(buildBookRequest())))
                 .andExpect(status().isOk())
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName("test update of a concurrently modified book return status 409-CONFLICT")
+    void update_Conflict() throws Exception {
+        when(bookService.update(any(BookRequest.class), eq(1L)))
+                .thenThrow(new BookConflictException("Book with id: 1 is at version 2, update was based on version 1"));
+
+        mockMvc.perform(put("/books/update")
+                        .param("id", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(JsonUtil.toJson(buildBookRequest())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("CONFLICT"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("test batch add success using /books/batch/add URI and return per item results")
+    void saveAll() throws Exception {
+        when(bookService.saveAll(anyList()))
+                .thenReturn(BatchResponse.of(List.of(BatchItemResult.success(0, 1L, BatchItemResult.Status.CREATED))));
+
+        mockMvc.perform(post("/books/batch/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(JsonUtil.toJson(List.of(buildBookRequest()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
     @Test
     @DisplayName("test findById  success using passing books/1 on URI and return status 200-OK")
     void findById() throws Exception {
@@ -81,11 +187,81 @@ class BookControllerTest {
         mockMvc.perform(get("/books/1")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-0\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=10, must-revalidate, public"))
                 .andExpect(jsonPath("$.title").value("first Book"))
                 .andExpect(jsonPath("$.author").value("Bushy Given"))
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName("test findById answers in cbor when the client accepts application/cbor")
+    void findById_Cbor() throws Exception {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new MappingJackson2HttpMessageConverter());
+        new WebConfig(wireFormats).extendMessageConverters(converters);
+        MockMvc binaryMockMvc = MockMvcBuilders.standaloneSetup(bookController)
+                .setMessageConverters(converters.toArray(HttpMessageConverter[]::new))
+                .build();
+        BookResponse bookResponse = buildBookResponse();
+        when(bookService.findById(1L))
+                .thenReturn(bookResponse);
+
+        byte[] body = binaryMockMvc.perform(get("/books/1")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new ObjectMapper(new CBORFactory()).readValue(body, BookResponse.class)).isEqualTo(bookResponse);
+    }
+
+    @Test
+    @DisplayName("test findById answers 304-NOT MODIFIED without loading the book when the ETag matches")
+    void findById_NotModified() throws Exception {
+        when(bookService.findRevision(1L))
+                .thenReturn(new BookRevision(3L, new Date()));
+
+        mockMvc.perform(get("/books/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andDo(MockMvcResultHandlers.print());
+        verify(bookService, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("test findById reloads a cache entry older than the revision the client is told about")
+    void findById_StaleCache() throws Exception {
+        BookResponse current = buildBookResponse();
+        current.setVersion(3L);
+        when(bookService.findRevision(1L))
+                .thenReturn(new BookRevision(3L, new Date()));
+        when(bookService.findById(1L))
+                .thenReturn(buildBookResponse());
+        when(bookService.refreshById(1L))
+                .thenReturn(current);
+
+        mockMvc.perform(get("/books/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"1-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-3\""))
+                .andExpect(jsonPath("$.version").value(3))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("test findById never reads the revision when the request has no validators")
+    void findById_Unconditional() throws Exception {
+        when(bookService.findById(1L))
+                .thenReturn(buildBookResponse());
+
+        mockMvc.perform(get("/books/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+        verify(bookService, never()).findRevision(anyLong());
+    }
+
     @Test
     @DisplayName("test existsById success return status 200-OK")
     void existsById() throws Exception {
@@ -100,17 +276,227 @@ class BookControllerTest {
     }
 
     @Test
-    @DisplayName("test findAll success return status 200-OK")
-    void findAll() throws Exception {
-        when(bookService.findAll())
+    @DisplayName("test lookup of many ids in one call return status 200-OK")
+    void lookup() throws Exception {
+        when(bookService.findAllById(List.of(1L, 2L)))
                 .thenReturn(List.of(buildBookResponse()));
 
+        mockMvc.perform(post("/books/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(JsonUtil.toJson(List.of(1L, 2L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("test bulk exists returns the ids that exist with status 200-OK")
+    void existsAll() throws Exception {
+        when(bookService.findExistingIds(List.of(1L, 2L)))
+                .thenReturn(new TreeSet<>(Set.of(1L)));
+
+        mockMvc.perform(post("/books/exists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(JsonUtil.toJson(List.of(1L, 2L))))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[1]"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("test findAll streams the listing as a json array and returns status 200-OK")
+    void findAll() throws Exception {
+        when(bookService.findCatalogRevision())
+                .thenReturn(new CatalogRevision(1L, new Date(1000L)));
+        doAnswer(invocation -> {
+            Consumer<BookResponse> consumer = invocation.getArgument(0);
+            consumer.accept(buildBookResponse());
+            consumer.accept(buildBookResponse());
+            return 2L;
+        }).when(bookService).findAll(Mockito.<Consumer<BookResponse>>any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/books/all")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"all-1-1000\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].title").value("first Book"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("test the streamed listing of a thousand books gzips to less than a third of its size")
+    void findAll_Compressible() throws Exception {
+        when(bookService.findCatalogRevision())
+                .thenReturn(new CatalogRevision(1000L, new Date(1000L)));
+        doAnswer(invocation -> {
+            Consumer<BookResponse> consumer = invocation.getArgument(0);
+            for (int i = 0; i < 1000; i++) {
+                consumer.accept(new BookResponse((long) i + 1, "book " + i, "author " + i % 100,
+                        new Date(1_700_000_000_000L + i * 1000L), 0L));
+            }
+            return 1000L;
+        }).when(bookService).findAll(Mockito.<Consumer<BookResponse>>any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/books/all"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        assertThat(compressed.size()).isLessThan(body.length / 3);
+    }
+
+    @Test
+    @DisplayName("test findAll streams smile when the client prefers it")
+    void findAll_Smile() throws Exception {
+        when(bookService.findCatalogRevision())
+                .thenReturn(new CatalogRevision(1L, new Date(1000L)));
+        doAnswer(invocation -> {
+            invocation.<Consumer<BookResponse>>getArgument(0).accept(buildBookResponse());
+            return 1L;
+        }).when(bookService).findAll(Mockito.<Consumer<BookResponse>>any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/books/all")
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-jackson-smile"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormats.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        BookResponse[] books = wireFormats.smile().readValue(body, BookResponse[].class);
+        assertThat(books).extracting(BookResponse::getTitle).containsExactly("first Book");
+    }
+
+    @Test
+    @DisplayName("test findAll answers 406-NOT ACCEPTABLE for an encoding it cannot write")
+    void findAll_NotAcceptable() throws Exception {
         mockMvc.perform(get("/books/all")
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_XML_VALUE))
+                .andExpect(status().isNotAcceptable());
+        verify(bookService, never()).findAll(Mockito.<Consumer<BookResponse>>any());
+    }
+
+    @Test
+    @DisplayName("test findPage success return status 200-OK with the next cursor")
+    void findPage() throws Exception {
+        when(bookService.findPage("abc", 10))
+                .thenReturn(BookPageResponse.builder()
+                        .books(List.of(buildBookResponse()))
+                        .hasNext(true)
+                        .nextCursor("def")
+                        .build());
+
+        mockMvc.perform(get("/books/page")
+                        .param("cursor", "abc")
+                        .param("size", "10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[0].title").value("first Book"))
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("test filter binds the query parameters return status 200-OK")
+    void filter() throws Exception {
+        when(bookService.filter(any(BookFilterRequest.class)))
+                .thenReturn(BookPageResponse.builder()
+                        .books(List.of(buildBookResponse()))
+                        .hasNext(true)
+                        .nextCursor("def")
+                        .build());
+
+        mockMvc.perform(get("/books/filter")
+                        .param("author", "Bushy Given")
+                        .param("titlePrefix", "first")
+                        .param("createdFrom", "2024-01-01T00:00:00.000Z")
+                        .param("cursor", "abc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[0].title").value("first Book"))
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andDo(MockMvcResultHandlers.print());
+
+        ArgumentCaptor<BookFilterRequest> filter = ArgumentCaptor.forClass(BookFilterRequest.class);
+        verify(bookService).filter(filter.capture());
+        assertThat(filter.getValue().getAuthor()).isEqualTo("Bushy Given");
+        assertThat(filter.getValue().getTitlePrefix()).isEqualTo("first");
+        assertThat(filter.getValue().getCreatedFrom()).isNotNull();
+        assertThat(filter.getValue().getCursor()).isEqualTo("abc");
+    }
+
+    @Test
+    @DisplayName("test search success return status 200-OK")
+    void search() throws Exception {
+        when(bookService.search("first", null))
+                .thenReturn(List.of(buildBookResponse()));
+
+        mockMvc.perform(get("/books/search")
+                        .param("q", "first")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("first Book"))
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName("test export streams one json document per line")
+    void export() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookResponse> consumer = invocation.getArgument(0);
+            consumer.accept(buildBookResponse());
+            consumer.accept(buildBookResponse());
+            return 2L;
+        }).when(bookService).exportAll(any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.split("\n")).hasSize(2)
+                .allSatisfy(line -> assertThat(line).contains("\"title\":\"first Book\""));
+    }
+
+    @Test
+    @DisplayName("test changes opens an event stream resuming after the Last-Event-ID header")
+    void changes() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(bookChangeBroadcaster.subscribe("lq2x-7")).thenReturn(emitter);
+
+        MvcResult mvcResult = mockMvc.perform(get("/books/changes")
+                        .header("Last-Event-ID", "lq2x-7")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().id("lq2x-8").name("deleted").data("{\"bookId\":1}"));
+        emitter.complete();
+
+        assertThat(mvcResult.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(mvcResult.getResponse().getContentAsString())
+                .contains("id:lq2x-8\n")
+                .contains("event:deleted\n")
+                .contains("data:{\"bookId\":1}\n");
+    }
+
     @Test
     @DisplayName("test count success return status 200-OK")
     void count() throws Exception {
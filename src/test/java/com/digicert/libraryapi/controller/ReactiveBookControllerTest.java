@@ -0,0 +1,147 @@
+package com.digicert.libraryapi.controller;
+
+import com.digicert.libraryapi.controller.advice.ReactiveRestExceptionHandler;
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.exception.BookNotFoundException;
+import com.digicert.libraryapi.exception.IngestionQueueFullException;
+import com.digicert.libraryapi.service.ReactiveBookService;
+import com.digicert.libraryapi.service.ingestion.BookIngestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.digicert.libraryapi.util.TestUtil.buildBookRequest;
+import static com.digicert.libraryapi.util.TestUtil.buildBookResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveBookControllerTest {
+
+    private WebTestClient webTestClient;
+    @Mock
+    private ReactiveBookService reactiveBookService;
+    @Mock
+    private BookIngestionService bookIngestionService;
+    @InjectMocks
+    private ReactiveBookController reactiveBookController;
+
+    @BeforeEach
+    public void setUp() {
+        this.webTestClient = WebTestClient
+                .bindToController(reactiveBookController)
+                .controllerAdvice(new ReactiveRestExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("test book created successfully on the reactive stack and return status 201-CREATED")
+    void save() {
+        when(reactiveBookService.save(any(BookRequest.class)))
+                .thenReturn(Mono.just(buildBookResponse()));
+
+        webTestClient.post().uri("/books/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(buildBookRequest())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("first Book")
+                .jsonPath("$.author").isEqualTo("Bushy Given");
+    }
+
+    @Test
+    @DisplayName("test book queued for write-behind ingestion on the reactive stack return status 202-ACCEPTED")
+    void save_Queued() {
+        when(bookIngestionService.isEnabled()).thenReturn(true);
+        when(bookIngestionService.submit(any(BookRequest.class)))
+                .thenReturn(buildBookResponse());
+
+        webTestClient.post().uri("/books/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(buildBookRequest())
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1);
+        verifyNoInteractions(reactiveBookService);
+    }
+
+    @Test
+    @DisplayName("test a full ingestion queue on the reactive stack return status 429-TOO MANY REQUESTS with Retry-After")
+    void save_QueueFull() {
+        when(bookIngestionService.isEnabled()).thenReturn(true);
+        when(bookIngestionService.submit(any(BookRequest.class)))
+                .thenThrow(new IngestionQueueFullException("ingestion queue is full, retry later"));
+
+        webTestClient.post().uri("/books/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(buildBookRequest())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                .expectBody()
+                .jsonPath("$.debugMessage").isEqualTo("ingestion queue is full, retry later");
+    }
+
+    @Test
+    @DisplayName("test findById on the reactive stack maps a missing book to 404-NOT FOUND")
+    void findById_NotFound() {
+        when(reactiveBookService.findById(1L))
+                .thenReturn(Mono.error(new BookNotFoundException("book not found with id: 1")));
+
+        webTestClient.get().uri("/books/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("NOT_FOUND")
+                .jsonPath("$.debugMessage").isEqualTo("book not found with id: 1");
+    }
+
+    @Test
+    @DisplayName("test update with malformed json on the reactive stack return status 400-BAD REQUEST")
+    void update_MalformedJson() {
+        webTestClient.put().uri("/books/update?id=1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Malformed JSON request");
+    }
+
+    @Test
+    @DisplayName("test export streams one json document per line on the reactive stack")
+    void export() {
+        BookResponse second = buildBookResponse();
+        second.setId(2L);
+        when(reactiveBookService.exportAll())
+                .thenReturn(Flux.just(buildBookResponse(), second));
+
+        String body = webTestClient.get().uri("/books/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(body.split("\n"))
+                .hasSize(2)
+                .allSatisfy(line -> assertThat(line).startsWith("{\"id\":"));
+    }
+}
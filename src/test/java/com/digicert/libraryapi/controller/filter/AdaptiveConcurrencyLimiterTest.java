@@ -0,0 +1,87 @@
+package com.digicert.libraryapi.controller.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    @DisplayName("test requests past the limit are refused until one is released")
+    void tryAcquire() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, THRESHOLD, 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release();
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test fast requests raise the limit by one per limit's worth of completions while it is at least half used")
+    void release_Increase() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 5, THRESHOLD, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(1_000, false, 0);
+        assertThat(limiter.limit()).isEqualTo(4);
+
+        fill(limiter);
+        limiter.release(1_000, false, 0);
+        limiter.release(1_000, false, 0);
+        assertThat(limiter.limit()).isEqualTo(4);
+
+        fill(limiter);
+        limiter.release(1_000, false, 0);
+        limiter.release(1_000, false, 0);
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("test steady fast traffic grows the limit additively instead of driving it to the maximum")
+    void release_SteadyTraffic() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 20, 1000, THRESHOLD, 0.5);
+
+        for (int i = 0; i < 2_000; i++) {
+            fill(limiter);
+            limiter.release(1_000, false, 0);
+        }
+
+        // 100 + 101 + ... + 117 = 1953 completions buy 18 steps, the next step needs 118 more
+        assertThat(limiter.limit()).isEqualTo(118);
+    }
+
+    @Test
+    @DisplayName("test slow or failed requests shrink the limit once per threshold, never below the minimum")
+    void release_Decrease() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 40, 200, THRESHOLD, 0.5);
+        long now = System.nanoTime();
+
+        limiter.tryAcquire();
+        limiter.release(2 * THRESHOLD, false, now);
+        assertThat(limiter.limit()).isEqualTo(50);
+
+        limiter.tryAcquire();
+        limiter.release(1_000, true, now + THRESHOLD / 2);
+        assertThat(limiter.limit()).isEqualTo(50);
+
+        limiter.tryAcquire();
+        limiter.release(1_000, true, now + THRESHOLD);
+        assertThat(limiter.limit()).isEqualTo(40);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    private static void fill(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            assertThat(limiter.inFlight()).isLessThanOrEqualTo(limiter.limit());
+        }
+    }
+}
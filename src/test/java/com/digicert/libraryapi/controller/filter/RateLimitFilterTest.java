@@ -0,0 +1,162 @@
+package com.digicert.libraryapi.controller.filter;
+
+import com.digicert.libraryapi.config.RateLimitProperties;
+import com.digicert.libraryapi.controller.advice.RestExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final RateLimitProperties rateLimitProperties = new RateLimitProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExceptionHandlerExceptionResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitProperties.setBurst(10);
+        rateLimitProperties.setTokensPerSecond(0.01);
+        rateLimitProperties.getCosts().put("/books/all", 5);
+
+        StaticWebApplicationContext context = new StaticWebApplicationContext();
+        context.registerSingleton("restExceptionHandler", RestExceptionHandler.class);
+        context.refresh();
+        resolver = new ExceptionHandlerExceptionResolver();
+        resolver.setApplicationContext(context);
+        resolver.setMessageConverters(List.of(new MappingJackson2HttpMessageConverter()));
+        resolver.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("test a client out of tokens gets 429 with Retry-After while other clients pass")
+    void doFilter_RateLimited() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(rateLimitProperties, resolver, meterRegistry);
+
+        assertThat(filter(filter, "/books/all", "10.0.0.1").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(filter(filter, "/books/all", "10.0.0.1").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        MockHttpServletResponse rejected = filter(filter, "/books/1", "10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("100");
+        assertThat(rejected.getContentAsString()).contains("rate limit exceeded for client 10.0.0.1");
+        assertThat(filter(filter, "/books/1", "10.0.0.2").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(meterRegistry.get("library.ratelimit.rejected").tag("reason", "rate").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("library.ratelimit.clients").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test requests past the concurrency limit get 503 and the slot is given back afterwards")
+    void doFilter_Overloaded() throws Exception {
+        rateLimitProperties.setTokensPerSecond(1000);
+        rateLimitProperties.getConcurrency().setInitialLimit(1);
+        rateLimitProperties.getConcurrency().setMinLimit(1);
+        RateLimitFilter filter = new RateLimitFilter(rateLimitProperties, resolver, meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<MockHttpServletResponse> held = executor.submit(() -> {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(request("/books/1", "10.0.0.1"), response, (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return response;
+            });
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            MockHttpServletResponse rejected = filter(filter, "/books/1", "10.0.0.2");
+            assertThat(rejected.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+            assertThat(filter(filter, "/books/changes", "10.0.0.2").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+
+            release.countDown();
+            assertThat(held.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        }
+
+        assertThat(filter(filter, "/books/1", "10.0.0.2").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(meterRegistry.get("library.ratelimit.rejected").tag("reason", "concurrency").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("library.ratelimit.concurrency.inflight").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("test a client id header from an untrusted address is ignored and the remote address is limited")
+    void doFilter_UntrustedHeader() throws Exception {
+        rateLimitProperties.setClientIdHeader("X-Forwarded-For");
+        rateLimitProperties.setTrustedProxies(List.of("192.168.0.0/16"));
+        RateLimitFilter filter = new RateLimitFilter(rateLimitProperties, resolver, meterRegistry);
+
+        assertThat(filter(filter, "/books/all", "10.0.0.1", "a").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(filter(filter, "/books/all", "10.0.0.1", "b").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        MockHttpServletResponse rejected = filter(filter, "/books/1", "10.0.0.1", "c");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getContentAsString()).contains("rate limit exceeded for client 10.0.0.1");
+        assertThat(meterRegistry.get("library.ratelimit.clients").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("test a trusted proxy names the client with the last entry of its header")
+    void doFilter_TrustedProxy() throws Exception {
+        rateLimitProperties.setClientIdHeader("X-Forwarded-For");
+        rateLimitProperties.setTrustedProxies(List.of("192.168.0.0/16"));
+        RateLimitFilter filter = new RateLimitFilter(rateLimitProperties, resolver, meterRegistry);
+
+        assertThat(filter(filter, "/books/all", "192.168.1.5", "spoofed, 203.0.113.7").getStatus())
+                .isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(filter(filter, "/books/all", "192.168.1.6", "other, 203.0.113.7").getStatus())
+                .isEqualTo(HttpServletResponse.SC_OK);
+        MockHttpServletResponse rejected = filter(filter, "/books/1", "192.168.1.5", "203.0.113.7");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getContentAsString()).contains("rate limit exceeded for client 203.0.113.7");
+        assertThat(filter(filter, "/books/1", "192.168.1.5", "203.0.113.8").getStatus())
+                .isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    private MockHttpServletResponse filter(RateLimitFilter filter, String path, String remoteAddr) throws Exception {
+        return filter(filter, path, remoteAddr, null);
+    }
+
+    private MockHttpServletResponse filter(RateLimitFilter filter, String path, String remoteAddr, String forwardedFor)
+            throws Exception {
+        MockHttpServletRequest request = request(path, remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/library-api" + path);
+        request.setContextPath("/library-api");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
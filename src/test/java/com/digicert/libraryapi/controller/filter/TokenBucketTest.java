@@ -0,0 +1,66 @@
+package com.digicert.libraryapi.controller.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("test a full bucket allows the burst and then refuses with the time until a token is back")
+    void tryTake_Burst() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.tryTake(1, 0)).isZero();
+        }
+
+        assertThat(bucket.tryTake(1, 0)).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    @DisplayName("test tokens are regained at the configured rate")
+    void tryTake_Refill() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        assertThat(bucket.tryTake(10, 0)).isZero();
+
+        assertThat(bucket.tryTake(3, SECOND / 5)).isPositive();
+        assertThat(bucket.tryTake(2, SECOND / 5)).isZero();
+        assertThat(bucket.tryTake(10, 2 * SECOND)).isZero();
+    }
+
+    @Test
+    @DisplayName("test a request costing more than the burst is charged as a full bucket")
+    void tryTake_CostAboveBurst() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+
+        assertThat(bucket.tryTake(50, 0)).isZero();
+        assertThat(bucket.tryTake(1, 0)).isPositive();
+    }
+
+    @Test
+    @DisplayName("test concurrent takers never spend more than the burst")
+    void tryTake_Concurrent() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 0.001, System.nanoTime());
+        AtomicInteger taken = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 5000; i++) {
+                executor.execute(() -> {
+                    if (bucket.tryTake(1, System.nanoTime()) == 0) {
+                        taken.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertThat(taken.get()).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,45 @@
+package com.digicert.libraryapi.controller.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrustedProxiesTest {
+
+    @Test
+    @DisplayName("test addresses are matched against CIDR blocks and single addresses")
+    void contains() {
+        TrustedProxies trustedProxies = new TrustedProxies(List.of("10.0.0.0/8", "172.16.0.0/12", "127.0.0.1", "fd00::/8"));
+
+        assertThat(trustedProxies.contains("10.255.0.1")).isTrue();
+        assertThat(trustedProxies.contains("172.31.255.255")).isTrue();
+        assertThat(trustedProxies.contains("172.32.0.1")).isFalse();
+        assertThat(trustedProxies.contains("127.0.0.1")).isTrue();
+        assertThat(trustedProxies.contains("127.0.0.2")).isFalse();
+        assertThat(trustedProxies.contains("fd12:3456::1")).isTrue();
+        assertThat(trustedProxies.contains("fe80::1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("test nothing is trusted when no proxies are configured or the address is not an IP")
+    void contains_Untrusted() {
+        assertThat(new TrustedProxies(List.of()).contains("10.0.0.1")).isFalse();
+        assertThat(new TrustedProxies(List.of("0.0.0.0/0")).contains("example.com")).isFalse();
+        assertThat(new TrustedProxies(List.of("0.0.0.0/0")).contains(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("test a host name or an out of range prefix is rejected")
+    void invalid() {
+        assertThatThrownBy(() -> new TrustedProxies(List.of("proxy.internal")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("not an IP address: proxy.internal");
+        assertThatThrownBy(() -> new TrustedProxies(List.of("10.0.0.0/33")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("invalid prefix length in trusted proxy 10.0.0.0/33");
+    }
+}
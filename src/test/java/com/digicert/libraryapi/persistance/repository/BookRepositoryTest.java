@@ -0,0 +1,92 @@
+package com.digicert.libraryapi.persistance.repository;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.persistance.projection.BookVersion;
+import com.digicert.libraryapi.persistance.specification.BookSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+class BookRepositoryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookDeletionsImpl bookDeletions;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Book first;
+    private Book second;
+
+    @BeforeEach
+    void setUp() {
+        first = entityManager.persistFlushFind(book("first Book"));
+        second = entityManager.persistFlushFind(book("second Book"));
+        // one update, so the two books are on different versions
+        second.setTitle("second Book, revised");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("test delete returning versions hands back the id and version of every deleted book")
+    void deleteReturningVersions() {
+        List<BookVersion> deleted = bookRepository.deleteReturningVersions(List.of(first.getId(), second.getId(), -1L));
+
+        assertThat(deleted).containsExactlyInAnyOrder(
+                new BookVersion(first.getId(), 0L), new BookVersion(second.getId(), 1L));
+        assertThat(bookRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("test delete returning versions of missing books deletes nothing and returns empty")
+    void deleteReturningVersions_NotFound() {
+        assertThat(bookRepository.deleteReturningVersions(List.of(-1L))).isEmpty();
+        assertThat(bookRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test lock then delete reads the versions under a row lock and deletes only the books it found")
+    void lockThenDelete() {
+        List<BookVersion> deleted = bookDeletions.lockThenDelete(List.of(second.getId(), -1L));
+
+        assertThat(deleted).containsExactly(new BookVersion(second.getId(), 1L));
+        assertThat(bookRepository.existsById(first.getId())).isTrue();
+        assertThat(bookRepository.existsById(second.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("test filtered listing selects matching books into responses, in the given order and limit")
+    void findResponsesBy() {
+        entityManager.persistAndFlush(book("Domain Driven Design"));
+        entityManager.clear();
+
+        List<BookResponse> books = bookRepository.findResponsesBy(BookSpecifications.titleStartsWith("first")
+                        .or(BookSpecifications.titleStartsWith("second")),
+                Sort.by(Sort.Direction.ASC, "title"), 1);
+
+        assertThat(books).extracting(BookResponse::getId, BookResponse::getTitle, BookResponse::getVersion)
+                .containsExactly(tuple(first.getId(), "first Book", 0L));
+    }
+
+    private static Book book(String title) {
+        return Book.builder()
+                .title(title)
+                .author("Bushy Given")
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.digicert.libraryapi.persistance.repository;
+
+import com.digicert.libraryapi.persistance.entity.OutboxEvent;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the relay's claim and delete statements against H2; every step commits on its own, so the row locks
+ * taken by one transaction are seen by the others.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRepositoryTest {
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        outboxRepository.saveAll(LongStream.rangeClosed(1, 5).mapToObj(this::event).toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("test claim batch hands out the oldest events and a deleted batch is not claimed again")
+    void claimBatch_ThenDelete() {
+        List<OutboxEvent> first = transactionTemplate.execute(status -> {
+            List<OutboxEvent> claimed = outboxRepository.claimBatch(PageRequest.ofSize(3));
+            outboxRepository.deleteAllWithIds(ids(claimed));
+            return claimed;
+        });
+        List<OutboxEvent> rest = transactionTemplate.execute(status -> outboxRepository.claimBatch(PageRequest.ofSize(3)));
+
+        assertThat(first).extracting(OutboxEvent::getBookId).containsExactly(1L, 2L, 3L);
+        assertThat(rest).extracting(OutboxEvent::getBookId).containsExactly(4L, 5L);
+        assertThat(outboxRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test claim batch skips the events another transaction has locked instead of waiting for them")
+    void claimBatch_SkipsLocked() {
+        List<Long> second = transactionTemplate.execute(status -> {
+            List<OutboxEvent> claimed = outboxRepository.claimBatch(PageRequest.ofSize(2));
+            assertThat(claimed).extracting(OutboxEvent::getBookId).containsExactly(1L, 2L);
+            // a second relay instance polling while the first still holds its batch
+            return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(other ->
+                            outboxRepository.claimBatch(PageRequest.ofSize(2)).stream().map(OutboxEvent::getBookId).toList()))
+                    .orTimeout(5, TimeUnit.SECONDS)
+                    .join();
+        });
+
+        assertThat(second).containsExactly(3L, 4L);
+    }
+
+    private OutboxEvent event(long bookId) {
+        return OutboxEvent.builder()
+                .bookId(bookId)
+                .eventType(BookChangedEvent.Type.CREATED)
+                .payload("{}")
+                .createdOn(new Date())
+                .build();
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+}
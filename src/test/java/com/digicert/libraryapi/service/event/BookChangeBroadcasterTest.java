@@ -0,0 +1,208 @@
+package com.digicert.libraryapi.service.event;
+
+import com.digicert.libraryapi.config.EventProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.digicert.libraryapi.util.TestUtil.buildBookResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookChangeBroadcasterTest {
+
+    private final EventProperties eventProperties = new EventProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookChangeBroadcaster bookChangeBroadcaster;
+
+    @AfterEach
+    void tearDown() {
+        bookChangeBroadcaster.stop();
+    }
+
+    @Test
+    @DisplayName("test a committed change is sent to every subscriber with the next event id")
+    void onBookChanged() throws InterruptedException {
+        bookChangeBroadcaster = new BookChangeBroadcaster(eventProperties, meterRegistry);
+        bookChangeBroadcaster.start();
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        bookChangeBroadcaster.subscribe(null, first);
+        bookChangeBroadcaster.subscribe(null, second);
+
+        bookChangeBroadcaster.onBookChanged(BookChangedEvent.created(buildBookResponse()));
+
+        for (RecordingEmitter emitter : new RecordingEmitter[]{first, second}) {
+            assertThat(emitter.next())
+                    .startsWith("id:" + id(1) + "\nevent:created\ndata:")
+                    .contains("first Book");
+        }
+        assertThat(meterRegistry.get("library.events.subscribers").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test a subscriber resuming with Last-Event-ID receives the events it missed in order")
+    void subscribe_Resume() throws InterruptedException {
+        bookChangeBroadcaster = new BookChangeBroadcaster(eventProperties, meterRegistry);
+        bookChangeBroadcaster.start();
+        bookChangeBroadcaster.onBookChanged(BookChangedEvent.deleted(1L, 0L));
+        bookChangeBroadcaster.onBookChanged(BookChangedEvent.deleted(2L, 0L));
+        bookChangeBroadcaster.onBookChanged(BookChangedEvent.deleted(3L, 0L));
+        awaitDispatched(3);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        bookChangeBroadcaster.subscribe(id(1), emitter);
+        bookChangeBroadcaster.onBookChanged(BookChangedEvent.deleted(4L, 0L));
+
+        assertThat(emitter.next()).startsWith("id:" + id(2) + "\n").contains("bookId=2");
+        assertThat(emitter.next()).startsWith("id:" + id(3) + "\n").contains("bookId=3");
+        assertThat(emitter.next()).startsWith("id:" + id(4) + "\n").contains("bookId=4");
+    }
+
+    @Test
+    @DisplayName("test a subscriber further behind than the history is told to reset")
+    void subscribe_Reset() throws InterruptedException {
+        eventProperties.setHistorySize(2);
+        bookChangeBroadcaster = new BookChangeBroadcaster(eventProperties, meterRegistry);
+        bookChangeBroadcaster.start();
+        for (long id = 1; id <= 4; id++) {
+            bookChangeBroadcaster.onBookChanged(BookChangedEvent.deleted(id, 0L));
+        }
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        awaitDispatched(4);
+        bookChangeBroadcaster.subscribe(id(0), emitter);
+
+        assertThat(emitter.next()).startsWith("id:" + id(2) + "\nevent:reset\n");
+        assertThat(emitter.next()).startsWith("id:" + id(3) + "\n");
+        assertThat(emitter.next()).startsWith("id:" + id(4) + "\n");
+    }
+
+    @Test
+    @DisplayName("test an id issued before a restart or by another instance gets a reset, not a replay")
+    void subscribe_OtherEpoch() throws InterruptedException {
+        bookChangeBroadcaster = new BookChangeBroadcaster(eventProperties, meterRegistry);
+        bookChangeBroadcaster.start();
+        bookChangeBroadcaster.onBookChanged(BookChangedEvent.deleted(1L, 0L));
+        bookChangeBroadcaster.onBookChanged(BookChangedEvent.deleted(2L, 0L));
+        awaitDispatched(2);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // same sequence number as an event this instance holds, issued by another epoch
+        bookChangeBroadcaster.subscribe("previous-1", emitter);
+
+        assertThat(emitter.next()).startsWith("id:" + id(0) + "\nevent:reset\n");
+        assertThat(emitter.next()).startsWith("id:" + id(1) + "\n").contains("bookId=1");
+        assertThat(emitter.next()).startsWith("id:" + id(2) + "\n").contains("bookId=2");
+    }
+
+    @Test
+    @DisplayName("test a committing writer does not offer to subscribers itself")
+    void onBookChanged_Dispatcher() throws InterruptedException {
+        bookChangeBroadcaster = new BookChangeBroadcaster(eventProperties, meterRegistry);
+        RecordingEmitter emitter = new RecordingEmitter();
+        bookChangeBroadcaster.subscribe(null, emitter);
+
+        // the dispatcher is not running yet, recording the event reaches no subscriber
+        bookChangeBroadcaster.onBookChanged(BookChangedEvent.deleted(1L, 0L));
+        assertThat(emitter.sent).isEmpty();
+
+        bookChangeBroadcaster.start();
+        assertThat(emitter.next()).startsWith("id:" + id(1) + "\n");
+    }
+
+    @Test
+    @DisplayName("test a subscriber that falls behind is disconnected without blocking the publisher")
+    void onBookChanged_SlowSubscriber() throws InterruptedException {
+        eventProperties.setSubscriberBufferSize(1);
+        bookChangeBroadcaster = new BookChangeBroadcaster(eventProperties, meterRegistry);
+        bookChangeBroadcaster.start();
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        bookChangeBroadcaster.subscribe(null, slow);
+
+        // the first event is stuck in send, the second fills the buffer, the third overflows it
+        for (long id = 1; id <= 3; id++) {
+            bookChangeBroadcaster.onBookChanged(BookChangedEvent.deleted(id, 0L));
+        }
+
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bookChangeBroadcaster.subscriberCount()).isZero();
+        assertThat(meterRegistry.get("library.events.overflowed").counter().count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("test heartbeat sends a comment to idle subscribers")
+    void heartbeat() throws InterruptedException {
+        bookChangeBroadcaster = new BookChangeBroadcaster(eventProperties, meterRegistry);
+        bookChangeBroadcaster.start();
+        RecordingEmitter emitter = new RecordingEmitter();
+        bookChangeBroadcaster.subscribe(null, emitter);
+
+        bookChangeBroadcaster.heartbeat();
+
+        assertThat(emitter.next()).isEqualTo(":heartbeat\n\n");
+    }
+
+    private String id(long sequence) {
+        return bookChangeBroadcaster.epoch() + "-" + sequence;
+    }
+
+    /**
+     * waits until the dispatcher has offered the given number of events, as a client could only have
+     * seen an id once it was dispatched
+     */
+    private void awaitDispatched(long events) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bookChangeBroadcaster.dispatched() < events && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(bookChangeBroadcaster.dispatched()).isEqualTo(events);
+    }
+
+    /**
+     * keeps what would have been written to the response, optionally holding every send until released
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        String next() throws InterruptedException {
+            return sent.poll(5, TimeUnit.SECONDS);
+        }
+    }
+}
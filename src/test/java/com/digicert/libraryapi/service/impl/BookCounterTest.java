@@ -0,0 +1,96 @@
+package com.digicert.libraryapi.service.impl;
+
+import com.digicert.libraryapi.persistance.projection.CatalogRevision;
+import com.digicert.libraryapi.persistance.repository.BookRepository;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+
+import static com.digicert.libraryapi.util.TestUtil.buildBookResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookCounterTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookCounter bookCounter;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("test counter is seeded from the database and follows creates and deletes")
+    void seedAndOnBookChanged() {
+        when(bookRepository.findCatalogRevision()).thenReturn(new CatalogRevision(3L, null));
+
+        bookCounter.seed();
+        bookCounter.onBookChanged(BookChangedEvent.created(buildBookResponse()));
+        bookCounter.onBookChanged(BookChangedEvent.created(buildBookResponse()));
+        bookCounter.onBookChanged(BookChangedEvent.updated(buildBookResponse()));
+        bookCounter.onBookChanged(BookChangedEvent.deleted(1L, 0L));
+
+        assertThat(bookCounter.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("test a transaction's changes are applied once it commits and dropped when it rolls back")
+    void onBookChanged_Transaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        bookCounter.onBookChanged(BookChangedEvent.created(buildBookResponse()));
+        bookCounter.onBookChanged(BookChangedEvent.created(buildBookResponse()));
+        assertThat(bookCounter.get()).isZero();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(bookCounter.get()).isEqualTo(2);
+
+        TransactionSynchronizationManager.initSynchronization();
+        bookCounter.onBookChanged(BookChangedEvent.deleted(1L, 0L));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(bookCounter.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test reconcile corrects drift from out-of-band writes")
+    void reconcile() {
+        bookCounter.onBookChanged(BookChangedEvent.created(buildBookResponse()));
+        when(bookRepository.findCatalogRevision()).thenReturn(new CatalogRevision(7L, new Date(1000L)));
+
+        bookCounter.reconcile();
+
+        assertThat(bookCounter.get()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("test reconcile leaves the count alone while a write is in flight")
+    void reconcile_WriteInFlight() {
+        TransactionSynchronizationManager.initSynchronization();
+        bookCounter.onBookChanged(BookChangedEvent.created(buildBookResponse()));
+
+        // the write has committed in the database, its increment is not applied yet
+        bookCounter.reconcile();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(bookCounter.get()).isEqualTo(1);
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
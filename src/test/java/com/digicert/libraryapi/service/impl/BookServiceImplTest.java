@@ -1,26 +1,52 @@
 package com.digicert.libraryapi.service.impl;
 
+import com.digicert.libraryapi.config.BookProperties;
+import com.digicert.libraryapi.controller.request.BookFilterRequest;
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.request.BookUpdateRequest;
+import com.digicert.libraryapi.controller.response.BatchItemResult;
+import com.digicert.libraryapi.controller.response.BatchItemResult.Status;
+import com.digicert.libraryapi.controller.response.BatchResponse;
+import com.digicert.libraryapi.controller.response.BookPageResponse;
 import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.exception.BookConflictException;
 import com.digicert.libraryapi.exception.BookNotFoundException;
+import com.digicert.libraryapi.metrics.BookMetrics;
 import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.persistance.projection.BookVersion;
+import com.digicert.libraryapi.persistance.projection.CatalogRevision;
 import com.digicert.libraryapi.persistance.repository.BookRepository;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import com.digicert.libraryapi.service.search.BookSearchIndex;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Set;
 
 import static com.digicert.libraryapi.util.TestUtil.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +55,24 @@ class BookServiceImplTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Spy
+    private BookProperties bookProperties = new BookProperties();
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private BookCounter bookCounter;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private BookMetrics bookMetrics;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -44,6 +88,7 @@ class BookServiceImplTest {
                 .hasNoNullFieldsOrProperties();
         assertThat(actualBookResponse.getAuthor()).isEqualTo("Bushy Given");
         assertThat(actualBookResponse.getTitle()).isEqualTo("first Book");
+        verify(eventPublisher).publishEvent(BookChangedEvent.created(actualBookResponse));
     }
 
     @Test
@@ -52,27 +97,110 @@ class BookServiceImplTest {
         assertThatThrownBy(() -> bookService.save(null))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("book request cannot be null");
+        verify(bookMetrics).validationFailed();
     }
 
     @Test
     @DisplayName("test update book success")
     void update() {
-        when(bookRepository.save(Mockito.any(Book.class)))
-                .thenReturn(buildBook());
-        BookResponse actualBookResponse = bookService.update(buildBookRequest(), 1L);
+        when(bookRepository.findById(1L))
+                .thenReturn(Optional.of(buildBook()));
+        BookRequest bookRequest = buildBookRequest();
+        bookRequest.setTitle("second Book");
+        BookResponse actualBookResponse = bookService.update(bookRequest, 1L);
 
         assertThat(actualBookResponse)
                 .isNotNull()
                 .hasNoNullFieldsOrProperties();
         assertThat(actualBookResponse.getAuthor()).isEqualTo("Bushy Given");
-        assertThat(actualBookResponse.getTitle()).isEqualTo("first Book");
+        assertThat(actualBookResponse.getTitle()).isEqualTo("second Book");
+        verify(entityManager).flush();
+        verify(bookRepository, never()).save(Mockito.any(Book.class));
+        verify(eventPublisher).publishEvent(BookChangedEvent.updated(actualBookResponse));
     }
 
     @Test
-    @DisplayName("test find book by a given id")
-    void findById() {
+    @DisplayName("test update book fails with a conflict when the client read an older version")
+    void update_Conflict() {
         when(bookRepository.findById(1L))
                 .thenReturn(Optional.of(buildBook()));
+        BookRequest bookRequest = buildBookRequest();
+        bookRequest.setVersion(7L);
+
+        assertThatThrownBy(() -> bookService.update(bookRequest, 1L))
+                .isInstanceOf(BookConflictException.class)
+                .hasMessage("Book with id: 1 is at version 0, update was based on version 7");
+        verify(entityManager, never()).flush();
+    }
+
+    @Test
+    @DisplayName("test save batch persists valid items and reports invalid ones")
+    void saveAll() {
+        when(bookRepository.saveAll(Mockito.anyList()))
+                .thenReturn(List.of(buildBook()));
+
+        BatchResponse batchResponse = bookService.saveAll(Arrays.asList(
+                BookRequest.builder().title("no author").build(),
+                buildBookRequest()));
+
+        assertThat(batchResponse.getSucceeded()).isEqualTo(1);
+        assertThat(batchResponse.getFailed()).isEqualTo(1);
+        assertThat(batchResponse.getResults())
+                .extracting(BatchItemResult::getIndex, BatchItemResult::getId, BatchItemResult::getStatus)
+                .containsExactly(
+                        tuple(0, null, Status.INVALID),
+                        tuple(1, 1L, Status.CREATED));
+    }
+
+    @Test
+    @DisplayName("test save batch fails when the batch is larger than allowed")
+    void saveAll_TooLarge() {
+        bookProperties.setMaxBatchSize(1);
+
+        assertThatThrownBy(() -> bookService.saveAll(List.of(buildBookRequest(), buildBookRequest())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("batch cannot contain more than 1 items");
+    }
+
+    @Test
+    @DisplayName("test update batch reports books that do not exist")
+    void updateAll() {
+        Book book = buildBook();
+        when(bookRepository.findAllById(Set.of(1L, 2L)))
+                .thenReturn(List.of(book));
+
+        BatchResponse batchResponse = bookService.updateAll(List.of(
+                BookUpdateRequest.builder().id(1L).title("new title").author("new author").build(),
+                BookUpdateRequest.builder().id(2L).title("title").author("author").build()));
+
+        assertThat(batchResponse.getResults())
+                .extracting(BatchItemResult::getStatus)
+                .containsExactly(Status.UPDATED, Status.NOT_FOUND);
+        assertThat(book.getTitle()).isEqualTo("new title");
+        assertThat(book.getAuthor()).isEqualTo("new author");
+        verify(entityManager).flush();
+        verify(eventPublisher).publishEvent(BookChangedEvent.updated(BookResponse.buildResponse(book)));
+    }
+
+    @Test
+    @DisplayName("test delete batch removes existing books in a single statement")
+    void deleteAll() {
+        when(bookRepository.deleteReturningVersions(Set.of(1L, 2L)))
+                .thenReturn(List.of(new BookVersion(1L, 3L)));
+
+        BatchResponse batchResponse = bookService.deleteAll(List.of(1L, 2L));
+
+        assertThat(batchResponse.getResults())
+                .extracting(BatchItemResult::getStatus)
+                .containsExactly(Status.DELETED, Status.NOT_FOUND);
+        verify(eventPublisher).publishEvent(BookChangedEvent.deleted(1L, 3L));
+    }
+
+    @Test
+    @DisplayName("test find book by a given id")
+    void findById() {
+        when(bookRepository.findResponseById(1L))
+                .thenReturn(Optional.of(buildBookResponse()));
 
         BookResponse actualBookResponse = bookService.findById(1L);
 
@@ -84,10 +212,31 @@ class BookServiceImplTest {
 
     }
 
+    @Test
+    @DisplayName("test find book by a given id fails and is counted when the book does not exist")
+    void findById_NotFound() {
+        when(bookRepository.findResponseById(1L))
+                .thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> bookService.findById(1L))
+                .isInstanceOf(BookNotFoundException.class)
+                .hasMessage("book not found with id: 1");
+        verify(bookMetrics).bookNotFound();
+    }
+
+    @Test
+    @DisplayName("test refreshById reads the book from the database")
+    void refreshById() {
+        when(bookRepository.findResponseById(1L))
+                .thenReturn(Optional.of(buildBookResponse()));
+
+        assertThat(bookService.refreshById(1L).getTitle()).isEqualTo("first Book");
+    }
+
     @Test
     @DisplayName("test existsById given id if present")
     void existsById() {
-        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(bookRepository.existsBookById(1L)).thenReturn(true);
         boolean exists = bookService.existsById(1L);
         assertThat(exists).isTrue();
     }
@@ -95,16 +244,57 @@ class BookServiceImplTest {
     @Test
     @DisplayName("test existsById given incorrect id if not exist")
     void existsById_NotExist() {
-        when(bookRepository.existsById(Mockito.anyLong())).thenReturn(false);
+        when(bookRepository.existsBookById(Mockito.anyLong())).thenReturn(false);
         boolean exists = bookService.existsById(1L);
         assertThat(exists).isFalse();
     }
 
+    @Test
+    @DisplayName("test lookup resolves the ids in chunks and keeps the request order")
+    void findAllById() {
+        bookProperties.setLookupChunkSize(2);
+        BookResponse first = buildBookResponse();
+        BookResponse third = buildBookResponse();
+        third.setId(3L);
+        when(bookRepository.findResponsesByIds(List.of(3L, 2L)))
+                .thenReturn(List.of(third));
+        when(bookRepository.findResponsesByIds(List.of(1L)))
+                .thenReturn(List.of(first));
+
+        List<BookResponse> bookResponses = bookService.findAllById(List.of(3L, 2L, 3L, 1L));
+
+        assertThat(bookResponses)
+                .extracting(BookResponse::getId)
+                .containsExactly(3L, 1L);
+    }
+
+    @Test
+    @DisplayName("test bulk exists returns the subset of ids that exist")
+    void findExistingIds() {
+        bookProperties.setLookupChunkSize(2);
+        when(bookRepository.findExistingIds(List.of(1L, 2L)))
+                .thenReturn(List.of(2L));
+        when(bookRepository.findExistingIds(List.of(3L)))
+                .thenReturn(List.of(3L));
+
+        Set<Long> existingIds = bookService.findExistingIds(List.of(1L, 2L, 3L));
+
+        assertThat(existingIds).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("test bulk exists fails when an id is null")
+    void findExistingIds_NullId() {
+        assertThatThrownBy(() -> bookService.findExistingIds(Arrays.asList(1L, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("ids cannot contain null");
+    }
+
     @Test
     @DisplayName("test find all books")
     void findAll() {
-        when(bookRepository.findAll())
-                .thenReturn(Stream.of(buildBook()).collect(Collectors.toSet()));
+        when(bookRepository.findResponses(Mockito.any(Pageable.class)))
+                .thenReturn(List.of(buildBookResponse()));
         List<BookResponse> bookResponses = bookService.findAll();
 
         assertThat(bookResponses)
@@ -115,24 +305,246 @@ class BookServiceImplTest {
     }
 
     @Test
-    @DisplayName("test find all books when there are no books in library")
-    void findAll_BooksNotFound() {
-        when(bookRepository.findAll())
+    @DisplayName("test find all books is capped at the configured max list size")
+    void findAll_Capped() {
+        bookProperties.setMaxListSize(50);
+        when(bookRepository.findResponses(PageRequest.ofSize(50)))
+                .thenReturn(List.of(buildBookResponse()));
+
+        assertThat(bookService.findAll()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("test find all books with a consumer reads at most the configured max list size")
+    void findAll_Consumer() {
+        bookProperties.setMaxListSize(2);
+        when(bookRepository.findResponses(PageRequest.ofSize(2)))
+                .thenReturn(List.of(buildBookResponse(), buildBookResponse()));
+        List<BookResponse> found = new ArrayList<>();
+
+        long count = bookService.findAll(found::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(found).hasSize(2);
+        verify(bookRepository, never()).findResponsesAfter(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("test find all books with a consumer seeks chunk after chunk and stops at the max list size")
+    void findAll_ConsumerChunks() {
+        bookProperties.setMaxListSize(5);
+        bookProperties.setStreamChunkSize(2);
+        BookResponse second = buildBookResponse();
+        second.setId(2L);
+        BookResponse fourth = buildBookResponse();
+        fourth.setId(4L);
+        when(bookRepository.findResponses(PageRequest.ofSize(2)))
+                .thenReturn(List.of(buildBookResponse(), second));
+        when(bookRepository.findResponsesAfter(second.getCreatedOn(), second.getTitle(), 2L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(buildBookResponse(), fourth));
+        when(bookRepository.findResponsesAfter(fourth.getCreatedOn(), fourth.getTitle(), 4L, PageRequest.ofSize(1)))
+                .thenReturn(List.of(buildBookResponse()));
+        List<BookResponse> found = new ArrayList<>();
+
+        long count = bookService.findAll(found::add);
+
+        assertThat(count).isEqualTo(5);
+        assertThat(found).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("test find all books returns an empty list when there are no books in library")
+    void findAll_NoBooks() {
+        when(bookRepository.findResponses(Mockito.any(Pageable.class)))
                 .thenReturn(new ArrayList<>());
 
-        assertThatThrownBy(() -> bookService.findAll())
+        assertThat(bookService.findAll()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("test find first page returns a cursor when more books are available")
+    void findPage() {
+        when(bookRepository.findResponses(PageRequest.ofSize(2)))
+                .thenReturn(List.of(buildBookResponse(), buildBookResponse()));
+
+        BookPageResponse page = bookService.findPage(null, 1);
+
+        assertThat(page.getBooks()).hasSize(1);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getNextCursor()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("test find next page seeks after the key encoded in the cursor")
+    void findPage_AfterCursor() {
+        BookResponse last = buildBookResponse();
+        String cursor = BookCursor.of(last).encode();
+        when(bookRepository.findResponsesAfter(last.getCreatedOn(), last.getTitle(), last.getId(), PageRequest.ofSize(21)))
+                .thenReturn(List.of(buildBookResponse()));
+
+        BookPageResponse page = bookService.findPage(cursor, null);
+
+        assertThat(page.getBooks()).hasSize(1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("test find page fails when the cursor cannot be decoded")
+    void findPage_InvalidCursor() {
+        assertThatThrownBy(() -> bookService.findPage("not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("invalid cursor");
+    }
+
+    @Test
+    @DisplayName("test export hands every book to the consumer without loading entities")
+    void exportAll() {
+        when(bookRepository.findResponses(PageRequest.ofSize(500))).thenReturn(List.of(buildBookResponse()));
+        List<BookResponse> exported = new ArrayList<>();
+
+        long count = bookService.exportAll(exported::add);
+
+        assertThat(count).isEqualTo(1);
+        assertThat(exported).extracting(BookResponse::getTitle).containsExactly("first Book");
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    @DisplayName("test filter reads one row past the page in listing order, without a count")
+    void filter() {
+        when(bookRepository.findResponsesBy(Mockito.<Specification<Book>>any(), Mockito.any(Sort.class), Mockito.anyInt()))
+                .thenReturn(new ArrayList<>(List.of(buildBookResponse())));
+
+        BookPageResponse page = bookService.filter(BookFilterRequest.builder()
+                .author("Bushy Given")
+                .titlePrefix("first")
+                .size(5)
+                .build());
+
+        assertThat(page.getBooks()).extracting(BookResponse::getTitle).containsExactly("first Book");
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        verify(bookRepository).findResponsesBy(Mockito.<Specification<Book>>any(),
+                Mockito.eq(Sort.by(Sort.Direction.DESC, "createdOn", "title", "id")), Mockito.eq(6));
+    }
+
+    @Test
+    @DisplayName("test filter returns a cursor that continues the filtered listing")
+    void filter_NextPage() {
+        when(bookRepository.findResponsesBy(Mockito.<Specification<Book>>any(), Mockito.any(Sort.class), Mockito.anyInt()))
+                .thenAnswer(invocation -> new ArrayList<>(List.of(buildBookResponse(), buildBookResponse())));
+
+        BookPageResponse first = bookService.filter(BookFilterRequest.builder().author("Bushy Given").size(1).build());
+        BookPageResponse second = bookService.filter(BookFilterRequest.builder()
+                .author("Bushy Given")
+                .size(1)
+                .cursor(first.getNextCursor())
+                .build());
+
+        assertThat(first.getBooks()).hasSize(1);
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(second.getBooks()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("test filter fails on a malformed cursor")
+    void filter_InvalidCursor() {
+        assertThatThrownBy(() -> bookService.filter(BookFilterRequest.builder().cursor("not-a-cursor").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("test filter fails when the date range is empty")
+    void filter_InvalidRange() {
+        Date now = new Date();
+
+        assertThatThrownBy(() -> bookService.filter(BookFilterRequest.builder()
+                .createdFrom(now)
+                .createdTo(now)
+                .build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("createdFrom must be before createdTo");
+    }
+
+    @Test
+    @DisplayName("test search returns books in the order ranked by the index")
+    void search() {
+        BookResponse first = buildBookResponse();
+        BookResponse second = buildBookResponse();
+        second.setId(2L);
+        when(bookSearchIndex.search("first", 20)).thenReturn(List.of(2L, 1L));
+        when(bookRepository.findResponsesByIds(List.of(2L, 1L))).thenReturn(List.of(first, second));
+
+        List<BookResponse> bookResponses = bookService.search("first", null);
+
+        assertThat(bookResponses).extracting(BookResponse::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("test search without index hits returns empty without a query")
+    void search_NoHits() {
+        when(bookSearchIndex.search("nothing", 20)).thenReturn(List.of());
+
+        assertThat(bookService.search("nothing", null)).isEmpty();
+        verify(bookRepository, never()).findResponsesByIds(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("test search fails when the query is empty")
+    void search_EmptyQuery() {
+        assertThatThrownBy(() -> bookService.search(" ", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("search query cannot be empty");
+    }
+
+    @Test
+    @DisplayName("test delete book by id issues a single delete that hands back the deleted version")
+    void deleteById() {
+        when(bookRepository.deleteReturningVersions(List.of(1L)))
+                .thenReturn(List.of(new BookVersion(1L, 3L)));
+
+        bookService.deleteById(1L);
+
+        verify(bookRepository, never()).existsById(Mockito.anyLong());
+        verify(eventPublisher).publishEvent(BookChangedEvent.deleted(1L, 3L));
+    }
+
+    @Test
+    @DisplayName("test delete book by id fails when the book does not exist")
+    void deleteById_NotFound() {
+        when(bookRepository.deleteReturningVersions(List.of(1L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> bookService.deleteById(1L))
                 .isInstanceOf(BookNotFoundException.class)
-                .hasMessage("books not found");
+                .hasMessage("Book not found with id: 1");
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     @DisplayName("test count books ")
     void count() {
-        when(bookRepository.count())
+        when(bookCounter.get())
                 .thenReturn(5L);
         long actualCount = bookService.count();
 
         assertThat(actualCount).isEqualTo(5);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("test catalog revision is read from the database, the same on every instance")
+    void findCatalogRevision() {
+        CatalogRevision revision = new CatalogRevision(5L, new Date(1000L));
+        when(bookRepository.findCatalogRevision())
+                .thenReturn(revision);
+
+        assertThat(bookService.findCatalogRevision()).isEqualTo(revision);
+        verifyNoInteractions(bookRepository);
+    }
+
+    /**
+     * answers findBy with the given books through a fluent query that records how it was built
+     */
+    @SuppressWarnings("unchecked")}
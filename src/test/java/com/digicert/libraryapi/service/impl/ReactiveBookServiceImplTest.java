@@ -0,0 +1,126 @@
+package com.digicert.libraryapi.service.impl;
+
+import com.digicert.libraryapi.config.BookProperties;
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.exception.BookNotFoundException;
+import com.digicert.libraryapi.metrics.BookMetrics;
+import com.digicert.libraryapi.persistance.repository.ReactiveBookRepository;
+import com.digicert.libraryapi.service.BookService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.digicert.libraryapi.config.CacheConfig.BOOKS;
+import static com.digicert.libraryapi.config.CacheConfig.BOOK_EXISTS;
+import static com.digicert.libraryapi.util.TestUtil.buildBookResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveBookServiceImplTest {
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private ReactiveBookRepository reactiveBookRepository;
+
+    @Spy
+    private BookProperties bookProperties = new BookProperties();
+
+    @Mock
+    private BookMetrics bookMetrics;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(BOOKS, BOOK_EXISTS);
+
+    @InjectMocks
+    private ReactiveBookServiceImpl reactiveBookService;
+
+    @Test
+    @DisplayName("test find book by id reads through the reactive repository")
+    void findById() {
+        when(reactiveBookRepository.findById(1L))
+                .thenReturn(Mono.just(buildBookResponse()));
+
+        BookResponse bookResponse = reactiveBookService.findById(1L).block();
+
+        assertThat(bookResponse.getTitle()).isEqualTo("first Book");
+        assertThat(cacheManager.getCache(BOOKS).get(1L, BookResponse.class)).isEqualTo(bookResponse);
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    @DisplayName("test find book by id is served from the books cache shared with the servlet stack")
+    void findById_Cached() {
+        cacheManager.getCache(BOOKS).put(1L, buildBookResponse());
+
+        BookResponse bookResponse = reactiveBookService.findById(1L).block();
+
+        assertThat(bookResponse.getTitle()).isEqualTo("first Book");
+        verifyNoInteractions(reactiveBookRepository);
+    }
+
+    @Test
+    @DisplayName("test exists by id reads through the bookExists cache")
+    void existsById() {
+        when(reactiveBookRepository.existsById(1L))
+                .thenReturn(Mono.just(true));
+
+        assertThat(reactiveBookService.existsById(1L).block()).isTrue();
+        assertThat(reactiveBookService.existsById(1L).block()).isTrue();
+
+        verify(reactiveBookRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    @DisplayName("test find book by id fails and is counted when the book does not exist")
+    void findById_NotFound() {
+        when(reactiveBookRepository.findById(1L))
+                .thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> reactiveBookService.findById(1L).block())
+                .isInstanceOf(BookNotFoundException.class)
+                .hasMessage("book not found with id: 1");
+        verify(bookMetrics).bookNotFound();
+    }
+
+    @Test
+    @DisplayName("test save delegates to the blocking book service only once subscribed")
+    void save() {
+        BookRequest bookRequest = BookRequest.builder().title("first Book").author("Bushy Given").build();
+        when(bookService.save(bookRequest)).thenReturn(buildBookResponse());
+
+        Mono<BookResponse> saved = reactiveBookService.save(bookRequest);
+        verifyNoInteractions(bookService);
+
+        assertThat(saved.block().getId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("test find all books is capped at the configured max list size")
+    void findAll() {
+        bookProperties.setMaxListSize(2);
+        when(reactiveBookRepository.findAll(2))
+                .thenReturn(Flux.just(buildBookResponse(), buildBookResponse()));
+
+        List<BookResponse> bookResponses = reactiveBookService.findAll().collectList().block();
+
+        assertThat(bookResponses).hasSize(2);
+    }
+}
@@ -0,0 +1,68 @@
+package com.digicert.libraryapi.service.ingestion;
+
+import com.digicert.libraryapi.persistance.entity.Book;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookIdAllocatorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactoryImplementor sessionFactory;
+
+    @Mock
+    private JdbcServices jdbcServices;
+
+    @Test
+    @DisplayName("test ids are handed out from pooled-lo blocks with one sequence call per block")
+    void nextId() {
+        BookIdAllocator bookIdAllocator = allocator(new H2Dialect());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .thenReturn(1L, 101L);
+
+        for (long expected = 1; expected <= Book.ID_ALLOCATION_SIZE; expected++) {
+            assertThat(bookIdAllocator.nextId()).isEqualTo(expected);
+        }
+        assertThat(bookIdAllocator.nextId()).isEqualTo(101L);
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("test the sequence is read with the next value statement of the configured dialect")
+    void nextId_DialectSequenceStatement() {
+        BookIdAllocator bookIdAllocator = allocator(new PostgreSQLDialect());
+        when(jdbcTemplate.queryForObject("select nextval('BOOK_SEQ')", Long.class)).thenReturn(1L);
+
+        assertThat(bookIdAllocator.nextId()).isEqualTo(1L);
+    }
+
+    private BookIdAllocator allocator(Dialect dialect) {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getJdbcServices()).thenReturn(jdbcServices);
+        when(jdbcServices.getDialect()).thenReturn(dialect);
+        return new BookIdAllocator(jdbcTemplate, entityManagerFactory);
+    }
+}
@@ -0,0 +1,217 @@
+package com.digicert.libraryapi.service.ingestion;
+
+import com.digicert.libraryapi.config.IngestionProperties;
+import com.digicert.libraryapi.controller.request.BookRequest;
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.exception.IngestionQueueFullException;
+import com.digicert.libraryapi.metrics.BookMetrics;
+import com.digicert.libraryapi.persistance.entity.Book;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import static com.digicert.libraryapi.config.CacheConfig.BOOK_EXISTS;
+import static com.digicert.libraryapi.util.TestUtil.buildBookRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookIngestionServiceTest {
+
+    @Mock
+    private BookIdAllocator bookIdAllocator;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private BookMetrics bookMetrics;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private IngestionDeadLetters deadLetters;
+
+    private final IngestionProperties ingestionProperties = new IngestionProperties();
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(BOOK_EXISTS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookIngestionService bookIngestionService;
+
+    @BeforeEach
+    void setUp() {
+        ingestionProperties.setQueueCapacity(2);
+        bookIngestionService = new BookIngestionService(ingestionProperties, bookIdAllocator, jdbcTemplate,
+                transactionTemplate, bookMetrics, cacheManager, eventPublisher, deadLetters,
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("test submit assigns an id and queues the book without writing it")
+    void submit() {
+        when(bookIdAllocator.nextId()).thenReturn(51L);
+
+        BookResponse bookResponse = bookIngestionService.submit(buildBookRequest());
+
+        assertThat(bookResponse.getId()).isEqualTo(51L);
+        assertThat(bookResponse.getVersion()).isZero();
+        assertThat(bookIngestionService.depth()).isEqualTo(1);
+        assertThat(meterRegistry.get("library.ingestion.queue.depth").gauge().value()).isEqualTo(1);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("test submit is rejected once the queue is at capacity")
+    void submit_QueueFull() {
+        when(bookIdAllocator.nextId()).thenReturn(1L, 2L);
+        bookIngestionService.submit(buildBookRequest());
+        bookIngestionService.submit(buildBookRequest());
+
+        assertThatThrownBy(() -> bookIngestionService.submit(buildBookRequest()))
+                .isInstanceOf(IngestionQueueFullException.class)
+                .hasMessage("ingestion queue is full, retry later");
+        assertThat(meterRegistry.get("library.ingestion.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("test submit fails validation before an id is allocated")
+    void submit_Invalid() {
+        BookRequest bookRequest = BookRequest.builder().title("first Book").build();
+
+        assertThatThrownBy(() -> bookIngestionService.submit(bookRequest))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("author cannot be empty");
+        verify(bookMetrics).validationFailed();
+        verifyNoInteractions(bookIdAllocator);
+    }
+
+    @Test
+    @DisplayName("test flush writes the queued books as one batch and publishes them")
+    @SuppressWarnings("unchecked")
+    void flush() {
+        when(bookIdAllocator.nextId()).thenReturn(1L, 2L);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        cacheManager.getCache(BOOK_EXISTS).put(1L, false);
+        bookIngestionService.submit(buildBookRequest());
+        bookIngestionService.submit(buildBookRequest());
+
+        int flushed = bookIngestionService.flush();
+
+        assertThat(flushed).isEqualTo(2);
+        assertThat(bookIngestionService.depth()).isZero();
+        verify(jdbcTemplate).batchUpdate(anyString(), Mockito.<Collection<Object>>argThat(books -> books.size() == 2),
+                eq(2), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(cacheManager.getCache(BOOK_EXISTS).get(1L)).isNull();
+        verify(eventPublisher, times(2)).publishEvent(Mockito.<BookChangedEvent>argThat(event ->
+                event.getType() == BookChangedEvent.Type.CREATED));
+    }
+
+    @Test
+    @DisplayName("test a failed batch is kept ahead of the queue and inserted on the next flush")
+    @SuppressWarnings("unchecked")
+    void flush_Retry() {
+        ingestionProperties.setRetryBackoff(Duration.ZERO);
+        when(bookIdAllocator.nextId()).thenReturn(1L, 2L);
+        runTransactions();
+        when(jdbcTemplate.batchUpdate(anyString(), Mockito.<Collection<Object>>any(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(new int[][]{{1, 1}});
+        bookIngestionService.submit(buildBookRequest());
+        bookIngestionService.submit(buildBookRequest());
+
+        assertThat(bookIngestionService.flush()).isZero();
+        assertThat(bookIngestionService.depth()).isEqualTo(2);
+        verifyNoInteractions(eventPublisher);
+
+        assertThat(bookIngestionService.flush()).isEqualTo(2);
+        assertThat(bookIngestionService.depth()).isZero();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(),
+                Mockito.<Collection<Object>>argThat(books -> books.size() == 2), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(eventPublisher, times(2)).publishEvent(any(BookChangedEvent.class));
+        verifyNoInteractions(deadLetters);
+        assertThat(meterRegistry.get("library.ingestion.failed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test a failed retry is not attempted before its backoff has passed")
+    @SuppressWarnings("unchecked")
+    void flush_RetryBackoff() {
+        ingestionProperties.setRetryBackoff(Duration.ofHours(1));
+        when(bookIdAllocator.nextId()).thenReturn(1L);
+        runTransactions();
+        when(jdbcTemplate.batchUpdate(anyString(), Mockito.<Collection<Object>>any(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        bookIngestionService.submit(buildBookRequest());
+
+        bookIngestionService.flush();
+        bookIngestionService.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), Mockito.<Collection<Object>>any(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(bookIngestionService.depth()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("test once retries are spent books are inserted one by one and the failing one is dead-lettered")
+    @SuppressWarnings("unchecked")
+    void flush_DeadLetter() {
+        ingestionProperties.setMaxRetries(0);
+        when(bookIdAllocator.nextId()).thenReturn(1L, 2L);
+        runTransactions();
+        DuplicateKeyException duplicate = new DuplicateKeyException("duplicate id 1");
+        when(jdbcTemplate.batchUpdate(anyString(), Mockito.<Collection<Object>>any(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<Book> books = invocation.getArgument(1);
+                    if (books.stream().anyMatch(book -> book.getId() == 1L)) {
+                        throw duplicate;
+                    }
+                    return new int[][]{{1}};
+                });
+        bookIngestionService.submit(buildBookRequest());
+        bookIngestionService.submit(buildBookRequest());
+
+        assertThat(bookIngestionService.flush()).isEqualTo(2);
+
+        assertThat(bookIngestionService.depth()).isZero();
+        verify(deadLetters).write(Mockito.argThat(book -> book.getId() == 1L), eq(duplicate));
+        verify(eventPublisher).publishEvent(Mockito.<BookChangedEvent>argThat(event -> event.getBookId() == 2L));
+        verify(eventPublisher, never()).publishEvent(Mockito.<BookChangedEvent>argThat(event -> event.getBookId() == 1L));
+    }
+
+    private void runTransactions() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
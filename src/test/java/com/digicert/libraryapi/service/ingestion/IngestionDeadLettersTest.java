@@ -0,0 +1,43 @@
+package com.digicert.libraryapi.service.ingestion;
+
+import com.digicert.libraryapi.config.IngestionProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.digicert.libraryapi.util.TestUtil.buildBook;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestionDeadLettersTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("test dead letters append one json line per book with the error")
+    void write() throws IOException {
+        IngestionProperties ingestionProperties = new IngestionProperties();
+        ingestionProperties.setDeadLetterFile(directory.resolve("ingestion/dead-letter.ndjson"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IngestionDeadLetters deadLetters = new IngestionDeadLetters(ingestionProperties, new ObjectMapper(),
+                meterRegistry);
+
+        deadLetters.write(buildBook(), new DuplicateKeyException("duplicate id 1"));
+        deadLetters.write(buildBook(), new DuplicateKeyException("duplicate id 1"));
+
+        List<String> lines = Files.readAllLines(ingestionProperties.getDeadLetterFile());
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0))
+                .startsWith("{\"book\":{\"id\":1,\"title\":\"first Book\",\"author\":\"Bushy Given\"")
+                .endsWith("\"error\":\"duplicate id 1\"}");
+        assertThat(meterRegistry.get("library.ingestion.dead.lettered").counter().count()).isEqualTo(2);
+    }
+}
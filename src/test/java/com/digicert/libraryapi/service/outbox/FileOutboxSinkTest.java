@@ -0,0 +1,47 @@
+package com.digicert.libraryapi.service.outbox;
+
+import com.digicert.libraryapi.config.OutboxProperties;
+import com.digicert.libraryapi.persistance.entity.OutboxEvent;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileOutboxSinkTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("test file sink appends one json line per event across batches")
+    void publish() throws IOException {
+        OutboxProperties outboxProperties = new OutboxProperties();
+        outboxProperties.setFile(directory.resolve("outbox/book-changes.ndjson"));
+        FileOutboxSink fileOutboxSink = new FileOutboxSink(outboxProperties);
+
+        fileOutboxSink.publish(List.of(event(1L)));
+        fileOutboxSink.publish(List.of(event(2L)));
+
+        assertThat(Files.readAllLines(outboxProperties.getFile())).containsExactly(
+                "{\"outboxId\":1,\"event\":{\"type\":\"DELETED\",\"bookId\":1}}",
+                "{\"outboxId\":2,\"event\":{\"type\":\"DELETED\",\"bookId\":2}}");
+    }
+
+    private static OutboxEvent event(Long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .bookId(id)
+                .eventType(BookChangedEvent.Type.DELETED)
+                .payload("{\"type\":\"DELETED\",\"bookId\":" + id + "}")
+                .createdOn(new Date())
+                .build();
+    }
+}
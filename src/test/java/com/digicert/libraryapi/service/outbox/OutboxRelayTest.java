@@ -0,0 +1,127 @@
+package com.digicert.libraryapi.service.outbox;
+
+import com.digicert.libraryapi.config.OutboxProperties;
+import com.digicert.libraryapi.persistance.entity.OutboxEvent;
+import com.digicert.libraryapi.persistance.repository.OutboxRepository;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final OutboxProperties outboxProperties = new OutboxProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // stand-in for a broker: keeps every batch it is handed
+    private final List<List<OutboxEvent>> published = new ArrayList<>();
+    private OutboxSink outboxSink = published::add;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxProperties.setBatchSize(2);
+        lenient().doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        outboxRelay = new OutboxRelay(outboxProperties, outboxRepository, events -> outboxSink.publish(events),
+                transactionTemplate, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("test relay publishes claimed events in order and deletes them in one statement")
+    void relayBatch() {
+        when(outboxRepository.claimBatch(any(Pageable.class))).thenReturn(events(1, 2));
+
+        int relayed = outboxRelay.relayBatch();
+
+        assertThat(relayed).isEqualTo(2);
+        assertThat(published).hasSize(1);
+        assertThat(published.get(0)).extracting(OutboxEvent::getId).containsExactly(1L, 2L);
+        verify(outboxRepository).deleteAllWithIds(List.of(1L, 2L));
+        assertThat(meterRegistry.get("library.outbox.relayed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("library.outbox.batch.size").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("library.outbox.lag").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test poll keeps relaying while batches come back full")
+    void poll() {
+        when(outboxRepository.claimBatch(any(Pageable.class)))
+                .thenReturn(events(1, 2), events(3, 4), events(5, 5));
+
+        outboxRelay.poll();
+
+        assertThat(published).hasSize(3);
+        verify(outboxRepository, times(3)).deleteAllWithIds(any());
+    }
+
+    @Test
+    @DisplayName("test poll stops after max-batches-per-poll full batches")
+    void poll_MaxBatches() {
+        outboxProperties.setMaxBatchesPerPoll(2);
+        when(outboxRepository.claimBatch(any(Pageable.class))).thenReturn(events(1, 2));
+
+        outboxRelay.poll();
+
+        verify(outboxRepository, times(2)).claimBatch(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("test a failing sink leaves the batch in the outbox")
+    void poll_SinkFails() {
+        outboxSink = events -> {
+            throw new IllegalStateException("broker unavailable");
+        };
+        when(outboxRepository.claimBatch(any(Pageable.class))).thenReturn(events(1, 2));
+
+        outboxRelay.poll();
+
+        verify(outboxRepository, never()).deleteAllWithIds(any());
+        assertThat(meterRegistry.get("library.outbox.failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("library.outbox.relayed").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("test an empty outbox is not published")
+    void relayBatch_Empty() {
+        when(outboxRepository.claimBatch(any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(outboxRelay.relayBatch()).isZero();
+        assertThat(published).isEmpty();
+        verify(outboxRepository, never()).deleteAllWithIds(any());
+    }
+
+    private static List<OutboxEvent> events(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> OutboxEvent.builder()
+                        .id(id)
+                        .bookId(id)
+                        .eventType(BookChangedEvent.Type.DELETED)
+                        .payload("{\"type\":\"DELETED\",\"bookId\":" + id + ",\"book\":null}")
+                        .createdOn(new Date())
+                        .build())
+                .toList();
+    }
+}
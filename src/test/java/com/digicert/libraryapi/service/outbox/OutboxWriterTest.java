@@ -0,0 +1,66 @@
+package com.digicert.libraryapi.service.outbox;
+
+import com.digicert.libraryapi.persistance.entity.OutboxEvent;
+import com.digicert.libraryapi.persistance.repository.OutboxRepository;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static com.digicert.libraryapi.util.TestUtil.buildBookResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxWriterTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private OutboxWriter outboxWriter;
+
+    @Test
+    @DisplayName("test a book change is recorded as an outbox row carrying the event as json")
+    void onBookChanged() {
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+
+        outboxWriter.onBookChanged(BookChangedEvent.created(buildBookResponse()));
+
+        verify(outboxRepository).save(captor.capture());
+        OutboxEvent outboxEvent = captor.getValue();
+        assertThat(outboxEvent.getBookId()).isEqualTo(1L);
+        assertThat(outboxEvent.getEventType()).isEqualTo(BookChangedEvent.Type.CREATED);
+        assertThat(outboxEvent.getPayload())
+                .contains("\"type\":\"CREATED\"")
+                .contains("\"bookId\":1")
+                .contains("\"version\":0")
+                .contains("\"title\":\"first Book\"");
+        assertThat(outboxEvent.getCreatedOn()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("test a deletion is recorded with the last version the book had")
+    void onBookChanged_Deleted() {
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+
+        outboxWriter.onBookChanged(BookChangedEvent.deleted(1L, 3L));
+
+        verify(outboxRepository).save(captor.capture());
+        OutboxEvent outboxEvent = captor.getValue();
+        assertThat(outboxEvent.getEventType()).isEqualTo(BookChangedEvent.Type.DELETED);
+        assertThat(outboxEvent.getPayload())
+                .contains("\"type\":\"DELETED\"")
+                .contains("\"bookId\":1")
+                .contains("\"version\":3");
+    }
+}
@@ -0,0 +1,121 @@
+package com.digicert.libraryapi.service.search;
+
+import com.digicert.libraryapi.controller.response.BookResponse;
+import com.digicert.libraryapi.persistance.repository.BookRepository;
+import com.digicert.libraryapi.service.event.BookChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookSearchIndex.put(1L, "Domain Driven Design", "Eric Evans");
+        bookSearchIndex.put(2L, "Design Patterns", "Erich Gamma");
+        bookSearchIndex.put(3L, "Evans on Design", "Someone Else");
+    }
+
+    @Test
+    @DisplayName("test search matches the last term as a prefix")
+    void search_Prefix() {
+        assertThat(bookSearchIndex.search("patt", 10)).containsExactly(2L);
+        assertThat(bookSearchIndex.search("eric", 10)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("test search ranks books matching more terms first, title hits above author hits")
+    void search_Ranking() {
+        assertThat(bookSearchIndex.search("design evans", 10)).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    @DisplayName("test search merges the posting lists of every token a prefix expands to")
+    void search_PrefixExpansion() {
+        bookSearchIndex.put(4L, "Designing Data-Intensive Applications", "Martin Kleppmann");
+
+        assertThat(bookSearchIndex.search("des", 10)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        assertThat(bookSearchIndex.search("data des", 10)).first().isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("test search returns at most limit results")
+    void search_Limit() {
+        assertThat(bookSearchIndex.search("design", 2)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("test put replaces the indexed terms and remove drops the book")
+    void putAndRemove() {
+        bookSearchIndex.put(2L, "Refactoring", "Martin Fowler");
+        assertThat(bookSearchIndex.search("patterns", 10)).isEmpty();
+        assertThat(bookSearchIndex.search("refactoring", 10)).containsExactly(2L);
+
+        bookSearchIndex.remove(2L);
+        assertThat(bookSearchIndex.search("refactoring", 10)).isEmpty();
+        assertThat(bookSearchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test committed change events are applied to the index")
+    void onBookChanged() {
+        bookSearchIndex.onBookChanged(BookChangedEvent.created(book(4L, "Refactoring", "Martin Fowler")));
+        bookSearchIndex.onBookChanged(BookChangedEvent.deleted(2L, 0L));
+
+        assertThat(bookSearchIndex.search("refactoring", 10)).containsExactly(4L);
+        assertThat(bookSearchIndex.search("patterns", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("test rebuild swaps in a fresh index and keeps the changes committed while it was reading")
+    void rebuild() {
+        when(bookRepository.findResponses(any())).thenAnswer(invocation -> {
+            // searches are still served from the old index while the catalog is read
+            assertThat(bookSearchIndex.search("evans", 10)).containsExactlyInAnyOrder(1L, 3L);
+            // committed after this page was read, so the page is already stale
+            bookSearchIndex.put(4L, "Refactoring", "Martin Fowler");
+            bookSearchIndex.remove(1L);
+            return List.of(book(1L, "Domain Driven Design", "Eric Evans"), book(2L, "Design Patterns", "Erich Gamma"));
+        });
+
+        bookSearchIndex.rebuild();
+
+        assertThat(bookSearchIndex.search("refactoring", 10)).containsExactly(4L);
+        assertThat(bookSearchIndex.search("evans", 10)).isEmpty();
+        assertThat(bookSearchIndex.search("patterns", 10)).containsExactly(2L);
+        assertThat(bookSearchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test tokenize lower cases and splits on anything but letters and digits")
+    void tokenize() {
+        assertThat(BookSearchIndex.tokenize("Clean-Code: 2nd Edition, clean"))
+                .containsExactly("clean", "code", "2nd", "edition");
+    }
+
+    private static BookResponse book(long id, String title, String author) {
+        return BookResponse.builder()
+                .id(id)
+                .title(title)
+                .author(author)
+                .version(0L)
+                .build();
+    }
+}
@@ -18,16 +18,21 @@ public class TestUtil {
 
     public static BookResponse buildBookResponse() {
         return BookResponse.builder()
+                .id(1L)
                 .title("first Book").author("Bushy Given")
                 .createdOn(new Date())
+                .version(0L)
                 .build();
     }
 
     public static Book buildBook(){
+        Date now = new Date();
         return Book.builder()
                 .id(1L)
                 .title("first Book").author("Bushy Given")
-                .createdOn(new Date())
+                .createdOn(now)
+                .lastModified(now)
+                .version(0L)
                 .build();
     }
 }